@@ -0,0 +1,178 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+/**
+ * Microbenchmarks of {@link SectionPositionIndex} alone: lookups, partial sum updates caused by
+ * item and section changes and a mixed workload. {@link SectionDataManager} can't be loaded on
+ * a plain JVM, so its checks, adapter calls and RecyclerView notifications are not included;
+ * end-to-end costs are measured by the Robolectric suite in the macrobenchmark module.
+ * <p>
+ * Run with <code>./gradlew :benchmarks:jmh</code>, ops/s and allocation rate (<code>-prof gc</code>)
+ * are reported to <code>benchmarks/build/reports/jmh/results.json</code>.
+ */
+@State(Scope.Thread)
+public class SectionPositionIndexBenchmark {
+
+    private static final int ITEMS_PER_SECTION = 20;
+    private static final int RANDOM_CNT = 1 << 16;
+
+    /**
+     * Section types are shorts, so SectionDataManager holds less than {@link Short#MAX_VALUE}
+     * sections and the biggest count stays below it.
+     */
+    @Param({"10", "100", "1000", "10000", "30000"})
+    public int sectionCnt;
+
+    private SectionPositionIndex positionIndex;
+    private int[] randoms;
+    private int randomIdx;
+    private short freeType;
+    private short releasedType;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        positionIndex = new SectionPositionIndex();
+        freeType = 1;
+        releasedType = 0;
+        for (int s = 0; s < sectionCnt; s++) {
+            positionIndex.insert(s, nextType(), ITEMS_PER_SECTION, false);
+        }
+        Random random = new Random(42);
+        randoms = new int[RANDOM_CNT];
+        for (int i = 0; i < RANDOM_CNT; i++) {
+            randoms[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public int calcSection() {
+        return positionIndex.calcSection(nextRandom() % positionIndex.getTotalCount());
+    }
+
+    @Benchmark
+    public int calcPosInSection() {
+        int adapterPos = nextRandom() % positionIndex.getTotalCount();
+        int section = positionIndex.calcSection(adapterPos);
+        return adapterPos - positionIndex.getFirstPos(section);
+    }
+
+    /**
+     * Updates the partial sums for an item inserted and then removed in a random section, and
+     * resolves the adapter positions to notify, as {@link SectionItemManager#notifyInserted(int, int)}
+     * and {@link SectionItemManager#notifyRemoved(int, int)} do. Index part only.
+     */
+    @Benchmark
+    public int indexItemInsertedRemoved() {
+        int section = nextRandom() % sectionCnt;
+        int pos = nextRandom() % ITEMS_PER_SECTION;
+        positionIndex.update(section, 1);
+        int insertedPos = positionIndex.getFirstPos(section) + pos;
+        positionIndex.update(section, -1);
+        return insertedPos + positionIndex.getFirstPos(section) + pos;
+    }
+
+    /**
+     * Inserts a section at a random index and removes the section at another random index, as
+     * {@link SectionManager#insertSection} and {@link SectionManager#removeSection(int)} do.
+     * Index part only.
+     */
+    @Benchmark
+    public int indexInsertRemoveSection() {
+        int section = nextRandom() % (sectionCnt + 1);
+        positionIndex.insert(section, nextType(), ITEMS_PER_SECTION, false);
+        int insertedPos = positionIndex.getFirstPos(section);
+        section = nextRandom() % (sectionCnt + 1);
+        int start = positionIndex.getFirstPos(section);
+        releasedType = positionIndex.getType(section);
+        return insertedPos + start + positionIndex.remove(section);
+    }
+
+    /**
+     * Resolves the index of a random section by its type, as {@link BaseSectionAdapter#getSection()}
+     * does, in O(1).
+     */
+    @Benchmark
+    public int indexOf() {
+        int section = nextRandom() % sectionCnt;
+        return positionIndex.indexOf(positionIndex.getType(section));
+    }
+
+    /**
+     * Interleaves section insertions and removals with lookups by type, so each lookup follows
+     * a change of the order of sections.
+     */
+    @Benchmark
+    public int indexOfAfterInsertRemove() {
+        int changed = indexInsertRemoveSection();
+        int section = nextRandom() % sectionCnt;
+        return changed + positionIndex.indexOf(positionIndex.getType(section));
+    }
+
+    /**
+     * Mixed index workload: 70% position lookups, 20% item insertions and removals, 10% section
+     * insertions and removals.
+     */
+    @Benchmark
+    public void mixed(Blackhole blackhole) {
+        int op = nextRandom() % 10;
+        if (op < 7) {
+            blackhole.consume(calcPosInSection());
+        } else if (op < 9) {
+            blackhole.consume(indexItemInsertedRemoved());
+        } else {
+            blackhole.consume(indexInsertRemoveSection());
+        }
+    }
+
+    private int nextRandom() {
+        randomIdx = (randomIdx + 1) & (RANDOM_CNT - 1);
+        return randoms[randomIdx];
+    }
+
+    /**
+     * Returns a type, that no section has, like SectionDataManager does, so lookups by type stay
+     * valid. The type of the last removed section is reused, so types don't run out.
+     */
+    private short nextType() {
+        if (releasedType != 0) {
+            short type = releasedType;
+            releasedType = 0;
+            return type;
+        }
+        return freeType++;
+    }
+
+}
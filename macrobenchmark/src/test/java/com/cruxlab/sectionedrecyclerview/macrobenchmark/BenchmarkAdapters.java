@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.macrobenchmark;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.cruxlab.sectionedrecyclerview.lib.BaseSectionAdapter;
+import com.cruxlab.sectionedrecyclerview.lib.SectionAdapter;
+import com.cruxlab.sectionedrecyclerview.lib.SimpleSectionAdapter;
+
+/**
+ * Section adapters with fixed item and header heights, that count created and bound ViewHolders.
+ */
+final class BenchmarkAdapters {
+
+    private BenchmarkAdapters() {}
+
+    static class HeaderSectionAdapter extends SectionAdapter<ItemVH, HeaderVH> {
+
+        private final int itemCnt;
+        private final int itemHeight;
+        private final int headerHeight;
+        private final BenchmarkCounters counters;
+
+        HeaderSectionAdapter(int itemCnt, int itemHeight, int headerHeight, BenchmarkCounters counters) {
+            super(true, true);
+            this.itemCnt = itemCnt;
+            this.itemHeight = itemHeight;
+            this.headerHeight = headerHeight;
+            this.counters = counters;
+        }
+
+        @Override
+        public int getItemCount() {
+            return itemCnt;
+        }
+
+        @Override
+        public ItemVH onCreateItemViewHolder(ViewGroup parent, short type) {
+            counters.itemCreates++;
+            return new ItemVH(createView(parent, itemHeight));
+        }
+
+        @Override
+        public void onBindItemViewHolder(ItemVH holder, int position) {
+            counters.itemBinds++;
+        }
+
+        @Override
+        public HeaderVH onCreateHeaderViewHolder(ViewGroup parent) {
+            counters.headerCreates++;
+            return new HeaderVH(createView(parent, headerHeight));
+        }
+
+        @Override
+        public void onBindHeaderViewHolder(HeaderVH holder) {
+            counters.headerBinds++;
+        }
+
+    }
+
+    static class HeaderlessSectionAdapter extends SimpleSectionAdapter<ItemVH> {
+
+        private final int itemCnt;
+        private final int itemHeight;
+        private final BenchmarkCounters counters;
+
+        HeaderlessSectionAdapter(int itemCnt, int itemHeight, BenchmarkCounters counters) {
+            this.itemCnt = itemCnt;
+            this.itemHeight = itemHeight;
+            this.counters = counters;
+        }
+
+        @Override
+        public int getItemCount() {
+            return itemCnt;
+        }
+
+        @Override
+        public ItemVH onCreateItemViewHolder(ViewGroup parent, short type) {
+            counters.itemCreates++;
+            return new ItemVH(createView(parent, itemHeight));
+        }
+
+        @Override
+        public void onBindItemViewHolder(ItemVH holder, int position) {
+            counters.itemBinds++;
+        }
+
+    }
+
+    static class ItemVH extends BaseSectionAdapter.ItemViewHolder {
+
+        ItemVH(View itemView) {
+            super(itemView);
+        }
+
+    }
+
+    static class HeaderVH extends BaseSectionAdapter.HeaderViewHolder {
+
+        HeaderVH(View itemView) {
+            super(itemView);
+        }
+
+    }
+
+    private static View createView(ViewGroup parent, int height) {
+        View view = new View(parent.getContext());
+        view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, height));
+        return view;
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.macrobenchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result of a benchmark scenario, which is written as a flat JSON object to
+ * <code>&lt;outputDir&gt;/&lt;scenario&gt;.json</code>.
+ */
+class BenchmarkResult {
+
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    BenchmarkResult(String label, String scenario) {
+        values.put("label", label);
+        values.put("scenario", scenario);
+    }
+
+    BenchmarkResult put(String key, Object value) {
+        values.put(key, value);
+        return this;
+    }
+
+    String toJson() {
+        StringBuilder sb = new StringBuilder("{\n");
+        int i = 0;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            sb.append("  \"").append(entry.getKey()).append("\": ");
+            Object value = entry.getValue();
+            if (value instanceof Number || value instanceof Boolean) {
+                sb.append(value);
+            } else {
+                sb.append('"').append(String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            }
+            sb.append(++i < values.size() ? ",\n" : "\n");
+        }
+        return sb.append("}\n").toString();
+    }
+
+    void write(File dir, String scenario) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Can't create output directory " + dir);
+        }
+        try (Writer writer = new FileWriter(new File(dir, scenario + ".json"))) {
+            writer.write(toJson());
+        }
+    }
+
+}
@@ -0,0 +1,259 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.macrobenchmark;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.RelativeLayout;
+
+import androidx.recyclerview.widget.ItemTouchHelper;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.cruxlab.sectionedrecyclerview.lib.BaseSectionAdapter;
+import com.cruxlab.sectionedrecyclerview.lib.SectionDataManager;
+import com.cruxlab.sectionedrecyclerview.lib.SectionHeaderLayout;
+import com.cruxlab.sectionedrecyclerview.lib.SectionItemSwipeCallback;
+import com.cruxlab.sectionedrecyclerview.lib.SimpleSectionAdapter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies that items dragged within and across sections are found by their keys at the new
+ * adapter positions and keep their ViewHolders while dragged. Also covers items swapped in place
+ * and reported as changed.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 29, qualifiers = "w360dp-h640dp-xxhdpi")
+public class ItemKeyIndexDragTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int SECTION_CNT = 2;
+    private static final int ITEMS_PER_SECTION = 10;
+    private static final int ITEM_HEIGHT = 144;
+
+    private RecyclerView recyclerView;
+    private SectionHeaderLayout sectionHeaderLayout;
+    private SectionDataManager sectionDataManager;
+    private List<KeyedSectionAdapter> adapters;
+
+    @Test
+    public void draggedItemsAreFoundByKey() {
+        setUp(false);
+        // Lookups build the index, so a stale one would return the positions before the drag.
+        assertEquals(1, sectionDataManager.findAdapterPosition(1));
+        assertEquals(ITEMS_PER_SECTION - 1, sectionDataManager.findAdapterPosition(ITEMS_PER_SECTION - 1));
+        assertEquals(ITEMS_PER_SECTION, sectionDataManager.findAdapterPosition(100));
+
+        ItemTouchHelper.Callback callback = sectionDataManager.getSwipeCallback();
+        assertTrue(callback.onMove(recyclerView, viewHolderAt(recyclerView, 1), viewHolderAt(recyclerView, 3)));
+        frame(sectionHeaderLayout);
+        assertEquals(3, sectionDataManager.findAdapterPosition(1));
+        assertEquals(1, sectionDataManager.findAdapterPosition(2));
+
+        // Moving the last item of the first section down onto the first item of the second one
+        // puts it right after that item.
+        int last = ITEMS_PER_SECTION - 1;
+        assertTrue(callback.onMove(recyclerView, viewHolderAt(recyclerView, last),
+                viewHolderAt(recyclerView, last + 1)));
+        frame(sectionHeaderLayout);
+        assertEquals(last + 1, sectionDataManager.findAdapterPosition(last));
+        assertEquals(last, sectionDataManager.findAdapterPosition(100));
+        assertEquals(last + 2, sectionDataManager.findAdapterPosition(101));
+    }
+
+    @Test
+    public void swappedItemsAreFoundByKey() {
+        setUp(false);
+        assertEquals(0, sectionDataManager.findAdapterPosition(0));
+        assertEquals(1, sectionDataManager.findAdapterPosition(1));
+
+        KeyedSectionAdapter adapter = adapters.get(0);
+        adapter.keys.set(0, 1L);
+        adapter.keys.set(1, 0L);
+        adapter.notifyItemRangeChanged(0, 2);
+        frame(sectionHeaderLayout);
+        assertEquals(1, sectionDataManager.findAdapterPosition(0));
+        assertEquals(0, sectionDataManager.findAdapterPosition(1));
+    }
+
+    @Test
+    public void draggedViewHolderStaysAttachedAcrossSections() {
+        setUp(true);
+        ItemTouchHelper.Callback callback = sectionDataManager.getSwipeCallback();
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        int last = ITEMS_PER_SECTION - 1;
+        RecyclerView.ViewHolder dragged = viewHolderAt(recyclerView, last);
+
+        // Each step lays out the RecyclerView, which drops ViewHolders with wrong view types or IDs.
+        assertTrue(callback.onMove(recyclerView, dragged, viewHolderAt(recyclerView, last + 1)));
+        frame(sectionHeaderLayout);
+        assertTrue(dragged.itemView.getParent() == recyclerView);
+        assertTrue(viewHolderAt(recyclerView, last + 1) == dragged);
+        assertTrue(callback.onMove(recyclerView, dragged, viewHolderAt(recyclerView, last + 2)));
+        frame(sectionHeaderLayout);
+        assertTrue(dragged.itemView.getParent() == recyclerView);
+        assertTrue(viewHolderAt(recyclerView, last + 2) == dragged);
+        assertEquals(last + 2, sectionDataManager.findAdapterPosition(last));
+
+        // When the drag ends, the item gets the view type and ID of its new section.
+        callback.clearView(recyclerView, dragged);
+        frame(sectionHeaderLayout);
+        RecyclerView.ViewHolder dropped = viewHolderAt(recyclerView, last + 2);
+        assertEquals(adapter.getItemViewType(last + 2), dropped.getItemViewType());
+        assertEquals(adapter.getItemId(last + 2), dropped.getItemId());
+        assertEquals(adapter.getItemViewType(last + 1), dropped.getItemViewType());
+    }
+
+    /**
+     * Lays out two header-less sections of keyed items with the item key index enabled.
+     *
+     * @param hasStableIds True to enable stable IDs.
+     */
+    private void setUp(boolean hasStableIds) {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        recyclerView = new RecyclerView(activity);
+        // Change animations would keep the old ViewHolder of the dropped item attached.
+        recyclerView.setItemAnimator(null);
+        sectionHeaderLayout = new SectionHeaderLayout(activity);
+        sectionHeaderLayout.addView(recyclerView, new RelativeLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        activity.setContentView(sectionHeaderLayout);
+        sectionDataManager = new SectionDataManager();
+        sectionDataManager.setItemKeyIndexEnabled(true);
+        sectionDataManager.setHasStableIds(hasStableIds);
+        recyclerView.setLayoutManager(new LinearLayoutManager(activity));
+        recyclerView.setAdapter(sectionDataManager.getAdapter());
+        sectionHeaderLayout.attachTo(recyclerView, sectionDataManager);
+        adapters = new ArrayList<>();
+        for (int s = 0; s < SECTION_CNT; s++) {
+            KeyedSectionAdapter adapter = new KeyedSectionAdapter(s * 100L, ITEMS_PER_SECTION);
+            adapters.add(adapter);
+            sectionDataManager.addSection(adapter, new DragCallback(adapter, adapters));
+        }
+        frame(sectionHeaderLayout);
+    }
+
+    private static RecyclerView.ViewHolder viewHolderAt(RecyclerView recyclerView, int adapterPos) {
+        RecyclerView.ViewHolder viewHolder = recyclerView.findViewHolderForAdapterPosition(adapterPos);
+        assertTrue("No ViewHolder at " + adapterPos, viewHolder != null);
+        return viewHolder;
+    }
+
+    private static void frame(View root) {
+        shadowOf(Looper.getMainLooper()).idle();
+        if (root.isLayoutRequested()) {
+            root.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            root.layout(0, 0, WIDTH, HEIGHT);
+        }
+        root.getViewTreeObserver().dispatchOnPreDraw();
+    }
+
+    private static class KeyedSectionAdapter extends SimpleSectionAdapter<BenchmarkAdapters.ItemVH> {
+
+        final List<Long> keys = new ArrayList<>();
+
+        KeyedSectionAdapter(long firstKey, int itemCnt) {
+            for (int i = 0; i < itemCnt; i++) {
+                keys.add(firstKey + i);
+            }
+        }
+
+        @Override
+        public int getItemCount() {
+            return keys.size();
+        }
+
+        @Override
+        public long getItemKey(int position) {
+            return keys.get(position);
+        }
+
+        @Override
+        public BenchmarkAdapters.ItemVH onCreateItemViewHolder(ViewGroup parent, short type) {
+            View view = new View(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ITEM_HEIGHT));
+            return new BenchmarkAdapters.ItemVH(view);
+        }
+
+        @Override
+        public void onBindItemViewHolder(BenchmarkAdapters.ItemVH holder, int position) {}
+
+    }
+
+    private static class DragCallback extends SectionItemSwipeCallback {
+
+        private final KeyedSectionAdapter adapter;
+        private final List<KeyedSectionAdapter> adapters;
+
+        DragCallback(KeyedSectionAdapter adapter, List<KeyedSectionAdapter> adapters) {
+            this.adapter = adapter;
+            this.adapters = adapters;
+        }
+
+        @Override
+        public int getSwipeDirFlags(RecyclerView recyclerView, BaseSectionAdapter.ItemViewHolder viewHolder) {
+            return 0;
+        }
+
+        @Override
+        public void onSwiped(BaseSectionAdapter.ItemViewHolder viewHolder, int direction) {}
+
+        @Override
+        public int getDragDirFlags(RecyclerView recyclerView, BaseSectionAdapter.ItemViewHolder viewHolder) {
+            return ItemTouchHelper.UP | ItemTouchHelper.DOWN;
+        }
+
+        @Override
+        public boolean onMove(BaseSectionAdapter.ItemViewHolder viewHolder, int fromPos, int toPos) {
+            adapter.keys.add(toPos, adapter.keys.remove(fromPos));
+            return true;
+        }
+
+        @Override
+        public boolean onMoveToSection(BaseSectionAdapter.ItemViewHolder viewHolder, int fromPos,
+                                       int toSection, int toPos) {
+            adapters.get(toSection).keys.add(toPos, adapter.keys.remove(fromPos));
+            return true;
+        }
+
+    }
+
+}
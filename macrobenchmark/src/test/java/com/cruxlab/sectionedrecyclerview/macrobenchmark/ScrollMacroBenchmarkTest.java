@@ -0,0 +1,263 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.macrobenchmark;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.RelativeLayout;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.cruxlab.sectionedrecyclerview.lib.SectionDataManager;
+import com.cruxlab.sectionedrecyclerview.lib.SectionHeaderLayout;
+import com.cruxlab.sectionedrecyclerview.lib.SectionedLayoutManager;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Scrolls a list of 50,000 items in 2,000 sections from top to bottom, or back from bottom to top,
+ * frame by frame and records bind and create counts, header swaps, layout passes, allocations and
+ * time for each scenario.
+ * <p>
+ * Run with <code>./gradlew :macrobenchmark:test</code>, results are written as JSON to
+ * <code>macrobenchmark/build/outputs/macrobenchmark</code>.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, qualifiers = "w360dp-h640dp-xxhdpi")
+public class ScrollMacroBenchmarkTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int SECTION_CNT = 2000;
+    private static final int ITEMS_PER_SECTION = 24;
+    private static final int SCROLL_STEP = 96;
+    private static final int MAX_FRAMES = 1_000_000;
+    private static final int HEADER_HEIGHT = 96;
+    private static final int[] ITEM_HEIGHTS = {144, 96, 240};
+    private static final short HEADER_TYPE_CNT = 3;
+
+    @Test
+    public void linearPinnedHeaders() throws IOException {
+        run("linear_pinned_headers", false, false, false);
+    }
+
+    @Test
+    public void linearPinnedHeadersUp() throws IOException {
+        run("linear_pinned_headers_up", false, false, true);
+    }
+
+    @Test
+    public void linearMixedSections() throws IOException {
+        run("linear_mixed_sections", true, false, false);
+    }
+
+    @Test
+    public void sectionedLayoutManagerGrid() throws IOException {
+        run("sectioned_layout_manager_grid", true, true, false);
+    }
+
+    @Test
+    public void sectionedLayoutManagerGridUp() throws IOException {
+        run("sectioned_layout_manager_grid_up", true, true, true);
+    }
+
+    /**
+     * Builds the scenario, scrolls it to the end or back to the start and writes the result.
+     *
+     * @param scenario Name of the scenario.
+     * @param mixed    True to use different item heights and headerless sections.
+     * @param grid     True to use {@link SectionedLayoutManager} with grid sections, which pins
+     *                 headers itself, instead of LinearLayoutManager and SectionHeaderLayout.
+     * @param up       True to scroll to the end first and measure scrolling back to the start.
+     */
+    private void run(String scenario, boolean mixed, boolean grid, boolean up) throws IOException {
+        final BenchmarkCounters counters = new BenchmarkCounters();
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        final RecyclerView recyclerView = new RecyclerView(activity);
+        SectionHeaderLayout sectionHeaderLayout = new SectionHeaderLayout(activity);
+        sectionHeaderLayout.addView(recyclerView, new RelativeLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        sectionHeaderLayout.setOnHierarchyChangeListener(new ViewGroup.OnHierarchyChangeListener() {
+            @Override
+            public void onChildViewAdded(View parent, View child) {
+                if (child != recyclerView) {
+                    counters.headerSwaps++;
+                }
+            }
+
+            @Override
+            public void onChildViewRemoved(View parent, View child) {}
+        });
+        activity.setContentView(sectionHeaderLayout);
+
+        SectionDataManager sectionDataManager = new SectionDataManager();
+        if (grid) {
+            recyclerView.setLayoutManager(new SectionedLayoutManager(sectionDataManager,
+                    new SectionedLayoutManager.SpanCountLookup() {
+                        @Override
+                        public int getSpanCount(int section) {
+                            return section % 2 == 0 ? 1 : 3;
+                        }
+                    }) {
+                @Override
+                public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+                    counters.layoutPasses++;
+                    super.onLayoutChildren(recycler, state);
+                }
+            });
+        } else {
+            recyclerView.setLayoutManager(new LinearLayoutManager(activity) {
+                @Override
+                public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+                    counters.layoutPasses++;
+                    super.onLayoutChildren(recycler, state);
+                }
+            });
+        }
+        recyclerView.setAdapter(sectionDataManager.getAdapter());
+        if (!grid) {
+            sectionHeaderLayout.attachTo(recyclerView, sectionDataManager);
+        }
+        for (int s = 0; s < SECTION_CNT; s++) {
+            int itemHeight = mixed ? ITEM_HEIGHTS[s % ITEM_HEIGHTS.length] : ITEM_HEIGHTS[0];
+            if (mixed && s % 4 == 3) {
+                sectionDataManager.addSection(new BenchmarkAdapters.HeaderlessSectionAdapter(
+                        ITEMS_PER_SECTION + 1, itemHeight, counters));
+            } else {
+                sectionDataManager.addSection(new BenchmarkAdapters.HeaderSectionAdapter(
+                        ITEMS_PER_SECTION, itemHeight, HEADER_HEIGHT, counters),
+                        (short) (s % HEADER_TYPE_CNT));
+            }
+        }
+        int itemCnt = sectionDataManager.getAdapter().getItemCount();
+        assertEquals(SECTION_CNT * (ITEMS_PER_SECTION + 1), itemCnt);
+        frame(sectionHeaderLayout);
+        if (up) {
+            scroll(recyclerView, sectionHeaderLayout, 1);
+            counters.reset();
+        }
+
+        long startAllocated = getAllocatedBytes();
+        long startTime = System.nanoTime();
+        int frames = scroll(recyclerView, sectionHeaderLayout, up ? -1 : 1);
+        long time = System.nanoTime() - startTime;
+        long allocated = getAllocatedBytes() - startAllocated;
+
+        if (up) {
+            View firstChild = recyclerView.getChildAt(0);
+            assertEquals(0, recyclerView.getChildAdapterPosition(firstChild));
+            assertEquals(recyclerView.getPaddingTop(), firstChild.getTop());
+        } else {
+            View lastChild = recyclerView.getChildAt(recyclerView.getChildCount() - 1);
+            assertEquals(itemCnt - 1, recyclerView.getChildAdapterPosition(lastChild));
+        }
+        assertTrue("ViewHolders aren't recycled", counters.itemCreates < itemCnt / 10);
+
+        String label = System.getProperty("macrobenchmark.label", "local");
+        String outputDir = System.getProperty("macrobenchmark.outputDir", "build/outputs/macrobenchmark");
+        new BenchmarkResult(label, scenario)
+                .put("sections", SECTION_CNT)
+                .put("items", itemCnt)
+                .put("frames", frames)
+                .put("itemCreates", counters.itemCreates)
+                .put("itemBinds", counters.itemBinds)
+                .put("headerCreates", counters.headerCreates)
+                .put("headerBinds", counters.headerBinds)
+                .put("headerSwaps", counters.headerSwaps)
+                .put("layoutPasses", counters.layoutPasses)
+                .put("allocatedBytes", allocated)
+                .put("allocatedBytesPerFrame", frames > 0 && allocated >= 0 ? allocated / frames : -1)
+                .put("timeMs", time / 1_000_000)
+                .write(new File(outputDir), scenario);
+    }
+
+    /**
+     * Scrolls the RecyclerView frame by frame until it can't be scrolled further.
+     *
+     * @param recyclerView RecyclerView to scroll.
+     * @param root         Root view of the scenario.
+     * @param direction    1 to scroll down, -1 to scroll up.
+     * @return Number of frames.
+     */
+    private static int scroll(RecyclerView recyclerView, View root, int direction) {
+        int frames = 0;
+        while (recyclerView.canScrollVertically(direction) && frames < MAX_FRAMES) {
+            recyclerView.scrollBy(0, direction * SCROLL_STEP);
+            frame(root);
+            frames++;
+        }
+        assertTrue("Scrolling stopped before the " + (direction > 0 ? "end" : "start"),
+                !recyclerView.canScrollVertically(direction));
+        return frames;
+    }
+
+    /**
+     * Emulates a frame: runs posted runnables (e.g. header view changes), lays out the view
+     * hierarchy if requested and dispatches pre-draw, which translates pinned headers.
+     *
+     * @param root Root view of the scenario.
+     */
+    private static void frame(View root) {
+        shadowOf(Looper.getMainLooper()).idle();
+        if (root.isLayoutRequested()) {
+            root.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            root.layout(0, 0, WIDTH, HEIGHT);
+        }
+        root.getViewTreeObserver().dispatchOnPreDraw();
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread or -1, if the JVM doesn't
+     * support it.
+     *
+     * @return Allocated bytes.
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.macrobenchmark;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.RelativeLayout;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.cruxlab.sectionedrecyclerview.lib.SectionDataManager;
+import com.cruxlab.sectionedrecyclerview.lib.SectionHeaderLayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowTrace;
+
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies that the library trace sections are balanced and tagged while scrolling and notifying
+ * sections with tracing enabled.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 29, qualifiers = "w360dp-h640dp-xxhdpi")
+public class TraceSectionsTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int SECTION_CNT = 200;
+    private static final int ITEMS_PER_SECTION = 10;
+
+    @Test
+    public void traceSectionsAreBalanced() {
+        ShadowTrace.reset();
+        BenchmarkCounters counters = new BenchmarkCounters();
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        RecyclerView recyclerView = new RecyclerView(activity);
+        SectionHeaderLayout sectionHeaderLayout = new SectionHeaderLayout(activity);
+        sectionHeaderLayout.addView(recyclerView, new RelativeLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        activity.setContentView(sectionHeaderLayout);
+        SectionDataManager sectionDataManager = new SectionDataManager();
+        recyclerView.setLayoutManager(new LinearLayoutManager(activity));
+        recyclerView.setAdapter(sectionDataManager.getAdapter());
+        sectionHeaderLayout.attachTo(recyclerView, sectionDataManager);
+        for (int s = 0; s < SECTION_CNT; s++) {
+            sectionDataManager.addSection(new BenchmarkAdapters.HeaderSectionAdapter(
+                    ITEMS_PER_SECTION, 144, 96, counters), (short) 0);
+        }
+        frame(sectionHeaderLayout);
+        int frames = 0;
+        while (recyclerView.canScrollVertically(1)) {
+            recyclerView.scrollBy(0, 240);
+            if (frames++ % 10 == 0) {
+                sectionDataManager.updateSection(frames % SECTION_CNT);
+            }
+            frame(sectionHeaderLayout);
+            assertTrue("Unbalanced trace sections: " + ShadowTrace.getCurrentSections(),
+                    ShadowTrace.getCurrentSections().isEmpty());
+        }
+        assertTrue(containsSection("SRV.onCreateViewHolder #"));
+        assertTrue(containsSection("SRV.onBindViewHolder #"));
+        assertTrue(containsSection("HeaderSectionAdapter"));
+        assertTrue(containsSection("SRV.checkIsHeaderViewChanged"));
+        assertTrue(containsSection("SRV.updatePosSum #"));
+    }
+
+    private static boolean containsSection(String label) {
+        for (String section : ShadowTrace.getPreviousSections()) {
+            if (section.contains(label)) return true;
+        }
+        return false;
+    }
+
+    private static void frame(View root) {
+        shadowOf(Looper.getMainLooper()).idle();
+        if (root.isLayoutRequested()) {
+            root.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            root.layout(0, 0, WIDTH, HEIGHT);
+        }
+        root.getViewTreeObserver().dispatchOnPreDraw();
+    }
+
+}
@@ -43,7 +43,12 @@ import java.util.List;
  */
 public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemViewHolder> {
 
-    int section = -1;
+    /**
+     * Item key, that means that the item isn't indexed, see {@link #getItemKey(int)}.
+     */
+    public static final long NO_ITEM_KEY = Long.MIN_VALUE;
+
+    short sectionType;
     SectionItemManager itemManager;
 
     /**
@@ -78,6 +83,24 @@ public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemView
      */
     public abstract void onBindItemViewHolder(IVH holder, int position);
 
+    /**
+     * Called by SectionDataManager to display the data at the specified section position. If
+     * <code>payloads</code> isn't empty, the holder is already bound to the item and only the
+     * changes described by the payloads passed to {@link #notifyItemChanged(int, Object)} or
+     * {@link #notifyItemRangeChanged(int, int, Object)} can be applied. Performs a full bind by
+     * default.
+     * <p>
+     * Similar to {@link RecyclerView.Adapter#onBindViewHolder(RecyclerView.ViewHolder, int, List)}.
+     *
+     * @param holder   The ViewHolder which should be updated to represent the contents of the
+     *                 item at the given position in the section data set.
+     * @param position The position of the item within the adapter's data set.
+     * @param payloads A non-null list of merged payloads. Can be empty list if requires full update.
+     */
+    public void onBindItemViewHolder(IVH holder, int position, List<Object> payloads) {
+        onBindItemViewHolder(holder, position);
+    }
+
     /**
      * Return the view type of the item within this section at <code>position</code> for the purposes
      * of view recycling.
@@ -92,6 +115,46 @@ public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemView
         return 0;
     }
 
+    /**
+     * Returns the stable ID of the item within this section at <code>position</code>, which is
+     * used when stable IDs are enabled via {@link SectionDataManager#setHasStableIds(boolean)}.
+     * IDs should be unique within the section and in [0, {@link Integer#MAX_VALUE}]. Returns the
+     * position by default, so items are identified by their positions.
+     * <p>
+     * Similar to {@link RecyclerView.Adapter#getItemId(int)}.
+     *
+     * @param position Position to query.
+     * @return Stable ID of the item at <code>position</code>.
+     */
+    public long getItemId(int position) {
+        return position;
+    }
+
+    /**
+     * Returns the key of the item within this section at <code>position</code>, which is used to
+     * find the item via {@link SectionDataManager#findAdapterPosition(long)} when the item key
+     * index is enabled. Keys should be unique among all sections, e.g. server IDs of the items.
+     * Returns {@link #NO_ITEM_KEY} by default, so items aren't indexed.
+     *
+     * @param position Position to query.
+     * @return Key of the item at <code>position</code> or {@link #NO_ITEM_KEY}.
+     */
+    public long getItemKey(int position) {
+        return NO_ITEM_KEY;
+    }
+
+    /**
+     * Returns the stable key of this section, which is combined with item IDs when stable IDs
+     * are enabled via {@link SectionDataManager#setHasStableIds(boolean)}. Keys should be unique
+     * among all sections. Override it to keep item IDs when the section is replaced with another
+     * adapter representing the same data. Returns the section type by default.
+     *
+     * @return Stable key of the section.
+     */
+    public int getSectionKey() {
+        return sectionType;
+    }
+
     /**
      * Notifies SectionDataManager that the item in this section at <code>pos</code> has been
      * inserted.
@@ -102,7 +165,7 @@ public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemView
      */
     public final void notifyItemInserted(int pos) {
         if (itemManager != null) {
-            itemManager.notifyInserted(section, pos);
+            itemManager.notifyInserted(getSection(), pos);
         }
     }
 
@@ -141,7 +204,7 @@ public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemView
      */
     public final void notifyItemRangeInserted(int startPos, int cnt) {
         if (itemManager != null) {
-            itemManager.notifyRangeInserted(section, startPos, cnt);
+            itemManager.notifyRangeInserted(getSection(), startPos, cnt);
         }
     }
 
@@ -155,7 +218,7 @@ public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemView
      */
     public final void notifyItemRemoved(int pos) {
         if (itemManager != null) {
-            itemManager.notifyRemoved(section, pos);
+            itemManager.notifyRemoved(getSection(), pos);
         }
     }
 
@@ -194,7 +257,7 @@ public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemView
      */
     public final void notifyItemRangeRemoved(int startPos, int cnt) {
         if (itemManager != null) {
-            itemManager.notifyRangeRemoved(section, startPos, cnt);
+            itemManager.notifyRangeRemoved(getSection(), startPos, cnt);
         }
     }
 
@@ -207,8 +270,22 @@ public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemView
      * @param pos Changed item position.
      */
     public final void notifyItemChanged(int pos) {
+        notifyItemChanged(pos, null);
+    }
+
+    /**
+     * Notifies SectionDataManager that the item in this section at <code>pos</code>
+     * has been changed with an optional payload, that is passed to
+     * {@link #onBindItemViewHolder(ItemViewHolder, int, List)} for a partial update.
+     * <p>
+     * Similar to {@link RecyclerView.Adapter#notifyItemChanged(int, Object)}.
+     *
+     * @param pos     Changed item position.
+     * @param payload Optional parameter, use null to identify a full update.
+     */
+    public final void notifyItemChanged(int pos, Object payload) {
         if (itemManager != null) {
-            itemManager.notifyChanged(section, pos);
+            itemManager.notifyChanged(getSection(), pos, payload);
         }
     }
 
@@ -246,8 +323,23 @@ public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemView
      * @param cnt      Number of items changed.
      */
     public final void notifyItemRangeChanged(int startPos, int cnt) {
+        notifyItemRangeChanged(startPos, cnt, null);
+    }
+
+    /**
+     * Notifies SectionDataManager that <code>cnt</code> items starting at <code>startPos</code>
+     * in this section have been changed with an optional payload, that is passed to
+     * {@link #onBindItemViewHolder(ItemViewHolder, int, List)} for a partial update.
+     * <p>
+     * Similar to {@link RecyclerView.Adapter#notifyItemRangeChanged(int, int, Object)}.
+     *
+     * @param startPos Position of the first item that was changed.
+     * @param cnt      Number of items changed.
+     * @param payload  Optional parameter, use null to identify a full update.
+     */
+    public final void notifyItemRangeChanged(int startPos, int cnt, Object payload) {
         if (itemManager != null) {
-            itemManager.notifyRangeChanged(section, startPos, cnt);
+            itemManager.notifyRangeChanged(getSection(), startPos, cnt, payload);
         }
     }
 
@@ -262,7 +354,7 @@ public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemView
      */
     public final void notifyItemMoved(int fromPos, int toPos) {
         if (itemManager != null) {
-            itemManager.notifyMoved(section, fromPos, toPos);
+            itemManager.notifyMoved(getSection(), fromPos, toPos);
         }
     }
 
@@ -278,18 +370,42 @@ public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemView
      */
     public final void notifyDataSetChanged() {
         if (itemManager != null) {
-            itemManager.notifyDataSetChanged(section);
+            itemManager.notifyDataSetChanged(getSection());
         }
     }
 
     /**
      * Returns the 0-based index of the section currently represented by this BaseSectionAdapter in
-     * RecyclerView.
+     * RecyclerView or -1, if it isn't added to SectionDataManager.
+     * <p>
+     * The index isn't stored in the adapter, it is resolved by SectionDataManager from the section
+     * type, so inserting or removing sections doesn't update all the following adapters.
      *
      * @return Current section index.
      */
     public final int getSection() {
-        return section;
+        return itemManager != null ? itemManager.getSection(sectionType) : -1;
+    }
+
+    /**
+     * Returns the name of the section, which is used to tag trace sections around the calls to this
+     * adapter, so that a slow frame can be attributed to it. Returns the class name by default.
+     *
+     * @return Section name.
+     */
+    public String getSectionName() {
+        String name = getClass().getSimpleName();
+        return name.isEmpty() ? getClass().getName() : name;
+    }
+
+    /**
+     * Returns the unique type of the section currently represented by this BaseSectionAdapter.
+     * Unlike the section index, it doesn't change when other sections are inserted or removed.
+     *
+     * @return Section type or 0, if the adapter doesn't represent any section.
+     */
+    public final short getSectionType() {
+        return sectionType;
     }
 
     void setItemManager(SectionItemManager itemManager) {
@@ -343,12 +459,30 @@ public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemView
         /**
          * Returns the section index that corresponds to this ViewHolder or -1, if this ViewHolder
          * hasn't been used in any RecyclerView.
+         * <p>
+         * The value is cached and recomputed only when the global adapter position or the sections
+         * have changed.
          *
          * @return Index of the section or -1.
          */
         public final int getSection() {
             int adapterPos = getGlobalAdapterPosition();
-            return posManager != null ? posManager.calcSection(adapterPos) : -1;
+            if (posManager == null) return -1;
+            if (viewHolderWrapper == null) return posManager.calcSection(adapterPos);
+            updatePositionCache(adapterPos);
+            return viewHolderWrapper.cachedSection;
+        }
+
+        /**
+         * Recomputes the cached section index and position in it, if they don't correspond to the
+         * given global adapter position anymore.
+         *
+         * @param adapterPos Global adapter position.
+         */
+        void updatePositionCache(int adapterPos) {
+            if (viewHolderWrapper.isPositionCached(adapterPos)) return;
+            viewHolderWrapper.cachePosition(adapterPos, posManager.calcSection(adapterPos),
+                    posManager.calcPosInSection(adapterPos));
         }
 
     }
@@ -368,12 +502,18 @@ public abstract class BaseSectionAdapter<IVH extends BaseSectionAdapter.ItemView
         /**
          * Returns the position in the corresponding BaseSectionAdapter represented by this ViewHolder
          * or -1, if this ViewHolder hasn't been used in any RecyclerView.
+         * <p>
+         * The value is cached and recomputed only when the global adapter position or the sections
+         * have changed.
          *
          * @return Section adapter position.
          */
         public final int getSectionAdapterPosition() {
             int adapterPos = getGlobalAdapterPosition();
-            return posManager != null ? posManager.calcPosInSection(adapterPos) : -1;
+            if (posManager == null) return -1;
+            if (viewHolderWrapper == null) return posManager.calcPosInSection(adapterPos);
+            updatePositionCache(adapterPos);
+            return viewHolderWrapper.cachedSectionPos;
         }
 
     }
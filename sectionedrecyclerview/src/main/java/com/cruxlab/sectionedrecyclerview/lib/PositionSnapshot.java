@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+/**
+ * Immutable {@link PositionManager} over a snapshot of {@link SectionPositionIndex}, that is
+ * returned by {@link SectionDataManager#snapshot()}.
+ * <p>
+ * It shares the arrays with the index, that copies them before the next modification, so it can
+ * be queried from any thread. All lookups take O(log S).
+ */
+final class PositionSnapshot implements PositionManager {
+
+    private final SectionPositionIndex positionIndex;
+
+    PositionSnapshot(SectionPositionIndex positionIndex) {
+        this.positionIndex = positionIndex;
+    }
+
+    @Override
+    public int calcAdapterPos(int section, int pos) {
+        if (section < 0 || section >= positionIndex.size()) return -1;
+        int headerCnt = positionIndex.isHeaderVisible(section) ? 1 : 0;
+        if (pos < 0 || pos >= positionIndex.getCount(section) - headerCnt) return -1;
+        return positionIndex.getFirstPos(section) + headerCnt + pos;
+    }
+
+    @Override
+    public int calcSection(int adapterPos) {
+        if (!isValid(adapterPos)) return -1;
+        return positionIndex.calcSection(adapterPos);
+    }
+
+    @Override
+    public int calcPosInSection(int adapterPos) {
+        if (!isValid(adapterPos)) return -1;
+        int section = positionIndex.calcSection(adapterPos);
+        int headerCnt = positionIndex.isHeaderVisible(section) ? 1 : 0;
+        return adapterPos - positionIndex.getFirstPos(section) - headerCnt;
+    }
+
+    @Override
+    public boolean isHeader(int adapterPos) {
+        if (!isValid(adapterPos)) return false;
+        int section = positionIndex.calcSection(adapterPos);
+        return positionIndex.isHeaderVisible(section) && positionIndex.getFirstPos(section) == adapterPos;
+    }
+
+    private boolean isValid(int adapterPos) {
+        return adapterPos >= 0 && adapterPos < positionIndex.getTotalCount();
+    }
+
+}
@@ -27,6 +27,8 @@ package com.cruxlab.sectionedrecyclerview.lib;
 import androidx.recyclerview.widget.RecyclerView;
 import android.view.ViewGroup;
 
+import java.util.List;
+
 /**
  * Base Adapter class for a section with header.
  * <p>
@@ -70,6 +72,22 @@ public abstract class SectionAdapter<IVH extends BaseSectionAdapter.ItemViewHold
      */
     public abstract void onBindHeaderViewHolder(HVH holder);
 
+    /**
+     * Called by SectionDataManager to display header data. If <code>payloads</code> isn't empty,
+     * the holder is already bound and only the changes described by the payloads passed to
+     * {@link #notifyHeaderChanged(Object)} can be applied. It is called both for the header in the
+     * RecyclerView and for its duplicate pinned to the top of the {@link SectionHeaderLayout}.
+     * Performs a full bind by default.
+     * <p>
+     * Similar to {@link RecyclerView.Adapter#onBindViewHolder(RecyclerView.ViewHolder, int, List)}.
+     *
+     * @param holder   The ViewHolder which should be updated to represent the contents of the header.
+     * @param payloads A non-null list of merged payloads. Can be empty list if requires full update.
+     */
+    public void onBindHeaderViewHolder(HVH holder, List<Object> payloads) {
+        onBindHeaderViewHolder(holder);
+    }
+
     /**
      * Notifies SectionDataManager that the header has been changed.
      * <p>
@@ -79,8 +97,18 @@ public abstract class SectionAdapter<IVH extends BaseSectionAdapter.ItemViewHold
      * view in the RecyclerView.
      */
     public void notifyHeaderChanged() {
+        notifyHeaderChanged(null);
+    }
+
+    /**
+     * Notifies SectionDataManager that the header has been changed with an optional payload, that
+     * is passed to {@link #onBindHeaderViewHolder(HeaderViewHolder, List)} for a partial update.
+     *
+     * @param payload Optional parameter, use null to identify a full update.
+     */
+    public void notifyHeaderChanged(Object payload) {
         if (itemManager == null) return;
-        itemManager.notifyHeaderChanged(section);
+        itemManager.notifyHeaderChanged(getSection(), payload);
     }
 
     /**
@@ -92,7 +120,7 @@ public abstract class SectionAdapter<IVH extends BaseSectionAdapter.ItemViewHold
         if (itemManager == null) return;
         if (visible == isHeaderVisible) return;
         isHeaderVisible = visible;
-        itemManager.notifyHeaderVisibilityChanged(section, visible);
+        itemManager.notifyHeaderVisibilityChanged(getSection(), visible);
     }
 
     /**
@@ -104,7 +132,7 @@ public abstract class SectionAdapter<IVH extends BaseSectionAdapter.ItemViewHold
         if (itemManager == null) return;
         if (pinned == isHeaderPinned) return;
         isHeaderPinned = pinned;
-        itemManager.notifyHeaderPinnedStateChanged(section, pinned);
+        itemManager.notifyHeaderPinnedStateChanged(getSection(), pinned);
     }
 
     /**
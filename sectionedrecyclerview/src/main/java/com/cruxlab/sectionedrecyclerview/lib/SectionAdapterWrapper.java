@@ -26,6 +26,8 @@ package com.cruxlab.sectionedrecyclerview.lib;
 
 import android.view.ViewGroup;
 
+import java.util.List;
+
 /**
  * Contains {@link SimpleSectionAdapter} or {@link SectionAdapter}. Passes calls to non null
  * adapter instance, handling unsupported calls for SimpleSectionAdapter without header.
@@ -68,18 +70,18 @@ class SectionAdapterWrapper {
         }
     }
     @SuppressWarnings("unchecked")
-    void onBindViewHolder(BaseSectionAdapter.ItemViewHolder holder, int position) {
+    void onBindViewHolder(BaseSectionAdapter.ItemViewHolder holder, int position, List<Object> payloads) {
         if (sectionAdapter != null) {
-            sectionAdapter.onBindItemViewHolder(holder, position);
+            sectionAdapter.onBindItemViewHolder(holder, position, payloads);
         } else {
-            simpleSectionAdapter.onBindItemViewHolder(holder, position);
+            simpleSectionAdapter.onBindItemViewHolder(holder, position, payloads);
         }
     }
 
     @SuppressWarnings("unchecked")
-    void onBindHeaderViewHolder(BaseSectionAdapter.HeaderViewHolder holder) {
+    void onBindHeaderViewHolder(BaseSectionAdapter.HeaderViewHolder holder, List<Object> payloads) {
         if (sectionAdapter != null) {
-            sectionAdapter.onBindHeaderViewHolder(holder);
+            sectionAdapter.onBindHeaderViewHolder(holder, payloads);
         }
     }
 
@@ -105,19 +107,19 @@ class SectionAdapterWrapper {
                 sectionAdapter.isHeaderPinned();
     }
 
-    void setSection(int section) {
+    void setSectionType(short sectionType) {
         if (sectionAdapter != null) {
-            sectionAdapter.section = section;
+            sectionAdapter.sectionType = sectionType;
         } else {
-            simpleSectionAdapter.section = section;
+            simpleSectionAdapter.sectionType = sectionType;
         }
     }
 
     int getSection() {
         if (sectionAdapter != null) {
-            return sectionAdapter.section;
+            return sectionAdapter.getSection();
         } else {
-            return simpleSectionAdapter.section;
+            return simpleSectionAdapter.getSection();
         }
     }
 
@@ -146,6 +148,38 @@ class SectionAdapterWrapper {
         }
     }
 
+    long getItemId(int position) {
+        if (sectionAdapter != null) {
+            return sectionAdapter.getItemId(position);
+        } else {
+            return simpleSectionAdapter.getItemId(position);
+        }
+    }
+
+    long getItemKey(int position) {
+        if (sectionAdapter != null) {
+            return sectionAdapter.getItemKey(position);
+        } else {
+            return simpleSectionAdapter.getItemKey(position);
+        }
+    }
+
+    int getSectionKey() {
+        if (sectionAdapter != null) {
+            return sectionAdapter.getSectionKey();
+        } else {
+            return simpleSectionAdapter.getSectionKey();
+        }
+    }
+
+    String getSectionName() {
+        if (sectionAdapter != null) {
+            return sectionAdapter.getSectionName();
+        } else {
+            return simpleSectionAdapter.getSectionName();
+        }
+    }
+
     short getHeaderType() {
         if (sectionAdapter != null) {
             return sectionAdapter.headerType;
@@ -154,7 +188,7 @@ class SectionAdapterWrapper {
     }
 
     void resetAdapter() {
-        setSection(-1);
+        setSectionType((short) 0);
         setItemManager(null);
         if (sectionAdapter != null) {
             sectionAdapter.headerType = SectionAdapter.NO_HEADER_TYPE;
@@ -0,0 +1,225 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Samples bind times of item and header views in {@link SectionDataManager}'s adapter and reports
+ * sections, whose 95th percentile bind time exceeds the budget.
+ * <p>
+ * Bind times are kept in a rolling histogram for each section type. The histogram has a fixed
+ * number of logarithmic buckets (each power of two range of microseconds is split into
+ * {@link #SUB_BUCKET_CNT} linear sub-buckets, so the error is within 12.5%), which is allocated
+ * once per section. When it contains {@link #WINDOW_SIZE} samples, all buckets are halved, so
+ * older samples fade out. The percentile is checked every {@link #CHECK_INTERVAL} samples.
+ * <p>
+ * {@link SlowSectionListener} is notified once, when the section becomes slow, and again only
+ * after its percentile has dropped within the budget and exceeded it again.
+ * <p>
+ * Should be used on the main thread only, as the bind path itself.
+ */
+public class SectionBindMonitor {
+
+    /**
+     * Interface for receiving slow section reports.
+     */
+    public interface SlowSectionListener {
+
+        /**
+         * Called when the 95th percentile of bind time of the section exceeds the budget.
+         *
+         * @param sectionAdapter Adapter of the slow section, which provides its index, type and
+         *                       name (see {@link BaseSectionAdapter#getSectionName()}).
+         * @param p95Nanos       Estimated 95th percentile of bind time in nanoseconds.
+         * @param budgetNanos    Configured budget in nanoseconds.
+         */
+        void onSlowSection(BaseSectionAdapter sectionAdapter, long p95Nanos, long budgetNanos);
+
+    }
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_CNT = 1 << SUB_BUCKET_BITS;
+    /**
+     * Bind times up to 2^24 microseconds (about 16 seconds) are distinguished.
+     */
+    private static final int MAX_BIT = 24;
+    private static final int BUCKET_CNT = (MAX_BIT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_CNT;
+    private static final int WINDOW_SIZE = 512;
+    private static final int CHECK_INTERVAL = 32;
+    private static final int MIN_SAMPLE_CNT = 64;
+    private static final double PERCENTILE = 0.95;
+
+    private final long budgetNanos;
+    private final int sampleRate;
+    private final SlowSectionListener listener;
+    private final SparseArray<Histogram> typeToHistogram = new SparseArray<>();
+    private int bindCnt;
+
+    /**
+     * Creates monitor, that samples each bind.
+     *
+     * @param budgetNanos Budget of the 95th percentile of bind time in nanoseconds.
+     * @param listener    Listener to be notified about slow sections.
+     */
+    public SectionBindMonitor(long budgetNanos, @NonNull SlowSectionListener listener) {
+        this(budgetNanos, 1, listener);
+    }
+
+    /**
+     * Creates monitor, that samples each <code>sampleRate</code>-th bind.
+     *
+     * @param budgetNanos Budget of the 95th percentile of bind time in nanoseconds.
+     * @param sampleRate  Sample each n-th bind, 1 to sample each bind.
+     * @param listener    Listener to be notified about slow sections.
+     */
+    public SectionBindMonitor(long budgetNanos, int sampleRate, @NonNull SlowSectionListener listener) {
+        if (budgetNanos <= 0) {
+            throw new IllegalArgumentException("Budget should be positive.");
+        }
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("Sample rate should be positive.");
+        }
+        this.budgetNanos = budgetNanos;
+        this.sampleRate = sampleRate;
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the estimated 95th percentile of bind time of the section with the given type.
+     *
+     * @param sectionType Section type, see {@link BaseSectionAdapter#getSectionType()}.
+     * @return Bind time in nanoseconds or -1, if there are no samples for this section.
+     */
+    public long getP95BindNanos(short sectionType) {
+        Histogram histogram = typeToHistogram.get(sectionType);
+        if (histogram == null || histogram.cnt == 0) return -1;
+        return histogram.getPercentileNanos(PERCENTILE);
+    }
+
+    /**
+     * Returns whether the next bind should be timed.
+     *
+     * @return True if the bind is sampled, false otherwise.
+     */
+    boolean shouldSample() {
+        if (++bindCnt < sampleRate) return false;
+        bindCnt = 0;
+        return true;
+    }
+
+    /**
+     * Records the bind time of the section and checks its percentile.
+     *
+     * @param sectionType    Type of the section.
+     * @param adapterWrapper Wrapper of the section adapter.
+     * @param nanos          Bind time in nanoseconds.
+     */
+    void record(short sectionType, SectionAdapterWrapper adapterWrapper, long nanos) {
+        Histogram histogram = typeToHistogram.get(sectionType);
+        if (histogram == null) {
+            histogram = new Histogram();
+            typeToHistogram.put(sectionType, histogram);
+        }
+        histogram.add(nanos);
+        if (histogram.cnt < MIN_SAMPLE_CNT || ++histogram.sinceCheck < CHECK_INTERVAL) return;
+        histogram.sinceCheck = 0;
+        long p95Nanos = histogram.getPercentileNanos(PERCENTILE);
+        if (p95Nanos > budgetNanos) {
+            if (!histogram.isSlow) {
+                histogram.isSlow = true;
+                listener.onSlowSection(adapterWrapper.getAdapter(), p95Nanos, budgetNanos);
+            }
+        } else {
+            histogram.isSlow = false;
+        }
+    }
+
+    /**
+     * Forgets samples of the removed section.
+     *
+     * @param sectionType Type of the removed section.
+     */
+    void remove(short sectionType) {
+        typeToHistogram.remove(sectionType);
+    }
+
+    /**
+     * Rolling histogram with logarithmic buckets of bind times in microseconds.
+     */
+    private static class Histogram {
+
+        final int[] buckets = new int[BUCKET_CNT];
+        int cnt;
+        int sinceCheck;
+        boolean isSlow;
+
+        void add(long nanos) {
+            buckets[getBucket(nanos / 1000)]++;
+            if (++cnt >= WINDOW_SIZE) {
+                cnt = 0;
+                for (int i = 0; i < BUCKET_CNT; i++) {
+                    buckets[i] >>= 1;
+                    cnt += buckets[i];
+                }
+            }
+        }
+
+        long getPercentileNanos(double percentile) {
+            int rank = (int) Math.ceil(cnt * percentile);
+            int sum = 0;
+            for (int i = 0; i < BUCKET_CNT; i++) {
+                sum += buckets[i];
+                if (sum >= rank) {
+                    return getBucketUpperBound(i) * 1000;
+                }
+            }
+            return getBucketUpperBound(BUCKET_CNT - 1) * 1000;
+        }
+
+        /**
+         * Returns the bucket of the value: values less than {@link #SUB_BUCKET_CNT} have own buckets,
+         * bigger ones are grouped by the highest bit and the next {@link #SUB_BUCKET_BITS} bits.
+         */
+        static int getBucket(long micros) {
+            if (micros < SUB_BUCKET_CNT) return (int) Math.max(0, micros);
+            int highestBit = 63 - Long.numberOfLeadingZeros(micros);
+            if (highestBit > MAX_BIT) return BUCKET_CNT - 1;
+            int shift = highestBit - SUB_BUCKET_BITS;
+            return (shift + 1) * SUB_BUCKET_CNT + (int) ((micros >> shift) & (SUB_BUCKET_CNT - 1));
+        }
+
+        static long getBucketUpperBound(int bucket) {
+            if (bucket < SUB_BUCKET_CNT) return bucket + 1;
+            int shift = bucket / SUB_BUCKET_CNT - 1;
+            long subBucket = bucket % SUB_BUCKET_CNT;
+            return ((SUB_BUCKET_CNT + subBucket + 1) << shift);
+        }
+
+    }
+
+}
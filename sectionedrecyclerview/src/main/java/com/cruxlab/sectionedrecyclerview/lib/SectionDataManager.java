@@ -27,12 +27,15 @@ package com.cruxlab.sectionedrecyclerview.lib;
 
 import android.graphics.Canvas;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import android.util.SparseArray;
+import android.view.View;
 import android.view.ViewGroup;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -44,7 +47,7 @@ import java.util.Set;
  * and an optional header (just another item for the RecyclerView.Adapter implementation), which can
  * be represented as views using corresponding {@link SimpleSectionAdapter} or {@link SectionAdapter}.
  * <p>
- * Each section obtains own unique type stored in {@link #sectionToType}. It is used to determine
+ * Each section obtains own unique type stored in {@link #positionIndex}. It is used to determine
  * that the section which corresponds to the given global adapter position has changed, so the
  * corresponding ViewHolder should be recreated. Each BaseSectionAdapter also can use short values
  * to distinguish own items.
@@ -55,30 +58,60 @@ import java.util.Set;
  * <p>
  * The main task is to determine, which section corresponds to the given global adapter position and
  * whether it is a header or a regular item in it. To do it efficiently partial sum array is used
- * {@link #sectionToPosSum}, where on the i-th position is the number of items in RecyclerView in all
- * sections before i-th inclusive, and binary search (e.g. {@link #calcSection(int)}).
+ * (see {@link SectionPositionIndex}), where on the i-th position is the number of items in
+ * RecyclerView in all sections before i-th inclusive, and binary search (e.g. {@link #calcSection(int)}).
+ * <p>
+ * Sections registered with user keys get {@link SectionHandle}s, which refer to sections by their
+ * types too, so {@link #keyToHandle} doesn't need to be updated when other sections change.
  * For details on how RecyclerView interacts with sections see the RecyclerView.Adapter {@link #adapter}
  * and ItemTouchHelper.Callback {@link #swipeCallback} implementations.
  */
 public class SectionDataManager implements SectionManager, PositionManager {
 
+    /**
+     * Maximum number of items in a section, that is moved by {@link #moveSection(int, int)} with
+     * item moved notifications. Bigger sections are removed and inserted, because RecyclerView
+     * handles each move notification separately.
+     */
+    public static final int MAX_MOVED_ITEM_COUNT = 300;
+
     private static final short NO_SECTION_TYPE = 0;
+    private static final int DRAG_SCROLL_DP_PER_FRAME = 8;
+    /**
+     * Low 32 bits of header IDs: Integer.MAX_VALUE + 1 is outside the range of item IDs and keeps
+     * header IDs different from RecyclerView.NO_ID (-1) for any section key.
+     */
+    private static final long HEADER_ITEM_ID = 0x80000000L;
 
     private short freeType = 1;
-    private ArrayList<Integer> sectionToPosSum;
-    private ArrayList<Short> sectionToType;
+    private SectionPositionIndex positionIndex;
     private SparseArray<SectionAdapterWrapper> typeToAdapter;
     private SparseArray<SectionItemSwipeCallback> typeToCallback;
     private SparseArray<Set<Short>> headerTypeToSectionTypes;
+    private HashMap<Object, SectionHandle> keyToHandle;
+    private SparseArray<SectionHandle> typeToHandle;
 
     private HeaderManager headerManager;
+    private RecyclerView recyclerView;
+    private SectionMetrics metrics;
+    private SectionBindMonitor bindMonitor;
+    private int callbackEpoch;
+    private SectionItemKeyIndex itemKeyIndex;
+    /**
+     * Adapter position of the item dragged to another section or NO_POSITION. Until the drag
+     * ends, the item keeps the view type and ID of its original section, see {@link #swipeCallback}.
+     */
+    private int movedItemPos = RecyclerView.NO_POSITION;
+    private int movedItemViewType;
+    private long movedItemId;
 
     public SectionDataManager() {
-        sectionToPosSum = new ArrayList<>();
-        sectionToType = new ArrayList<>();
+        positionIndex = new SectionPositionIndex();
         typeToAdapter = new SparseArray<>();
         typeToCallback = new SparseArray<>();
         headerTypeToSectionTypes = new SparseArray<>();
+        keyToHandle = new HashMap<>();
+        typeToHandle = new SparseArray<>();
     }
 
     /**
@@ -101,6 +134,120 @@ public class SectionDataManager implements SectionManager, PositionManager {
         return swipeCallback;
     }
 
+    /**
+     * Returns an immutable PositionManager, that reflects the current sections and can be queried
+     * from any thread, e.g. for impression logging in background. It doesn't reflect later changes.
+     * Should be called on the main thread.
+     * <p>
+     * Taking a snapshot is O(1): it shares the position arrays, which are copied only before the
+     * next change of the sections. Lookups take O(log S).
+     *
+     * @return Snapshot of the current positions.
+     */
+    public PositionManager snapshot() {
+        return new PositionSnapshot(positionIndex.snapshot());
+    }
+
+    /**
+     * Enables or disables the index of item keys reported by
+     * {@link BaseSectionAdapter#getItemKey(int)}, which is used by {@link #findAdapterPosition(long)}.
+     * The index is updated from item notifications of the sections, so it costs some time on each
+     * change. Disabled by default.
+     *
+     * @param enabled True to maintain the item key index, false otherwise.
+     */
+    public void setItemKeyIndexEnabled(boolean enabled) {
+        if (!enabled) {
+            itemKeyIndex = null;
+        } else if (itemKeyIndex == null) {
+            itemKeyIndex = new SectionItemKeyIndex();
+            for (int section = 0; section < getSectionCount(); section++) {
+                short sectionType = positionIndex.getType(section);
+                itemKeyIndex.addSection(sectionType, typeToAdapter.get(sectionType));
+            }
+        }
+    }
+
+    /**
+     * Returns the adapter position of the item with the given key without scanning the sections,
+     * e.g. to update the item on a push message. Its section is found in O(1) and the position in
+     * O(1) + O(log S), except for sections with items inserted, removed or moved in the middle since
+     * the last lookup, whose keys are collected again.
+     * <p>
+     * Requires the item key index to be enabled via {@link #setItemKeyIndexEnabled(boolean)}.
+     *
+     * @param itemKey Item key returned by {@link BaseSectionAdapter#getItemKey(int)}.
+     * @return Global adapter position or -1, if there is no item with the given key.
+     */
+    public int findAdapterPosition(long itemKey) {
+        if (itemKeyIndex == null) {
+            throw new RuntimeException("Item key index hasn't been enabled.");
+        }
+        short sectionType = itemKeyIndex.findSectionType(itemKey);
+        if (sectionType == NO_SECTION_TYPE) return -1;
+        int section = positionIndex.indexOf(sectionType);
+        int pos = itemKeyIndex.findPosInSection(sectionType, itemKey);
+        return section != -1 && pos != -1 ? getAdapterPos(section, pos) : -1;
+    }
+
+    /**
+     * Indicates whether items have stable IDs. When enabled, ID of each item is composed of the
+     * section key {@link BaseSectionAdapter#getSectionKey()} in the high 32 bits and the item ID
+     * {@link BaseSectionAdapter#getItemId(int)} in the low 32 bits, i.e.
+     * <code>(long) sectionKey &lt;&lt; 32 | itemId</code>. Item IDs must be in
+     * [0, {@link Integer#MAX_VALUE}], so headers use the reserved value
+     * <code>0x80000000</code> (<code>Integer.MAX_VALUE + 1</code>) in the low 32 bits, which never
+     * collides with items, and no ID is equal to {@link RecyclerView#NO_ID}. It lets RecyclerView
+     * reuse attached ViewHolders after data set changes.
+     * <p>
+     * Should be called before the adapter is attached to RecyclerView.
+     * <p>
+     * Similar to {@link RecyclerView.Adapter#setHasStableIds(boolean)}.
+     *
+     * @param hasStableIds Whether items have stable IDs.
+     */
+    public void setHasStableIds(boolean hasStableIds) {
+        adapter.setHasStableIds(hasStableIds);
+    }
+
+    /**
+     * Sets SectionMetrics to collect hot path metrics or removes them.
+     *
+     * @param metrics SectionMetrics to record to or null to stop recording.
+     */
+    public void setMetrics(@Nullable SectionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns SectionMetrics, that have been set via {@link #setMetrics(SectionMetrics)}.
+     *
+     * @return SectionMetrics or null.
+     */
+    @Nullable
+    public SectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets SectionBindMonitor to sample bind times of sections or removes it.
+     *
+     * @param bindMonitor SectionBindMonitor to record to or null to stop sampling.
+     */
+    public void setBindMonitor(@Nullable SectionBindMonitor bindMonitor) {
+        this.bindMonitor = bindMonitor;
+    }
+
+    /**
+     * Returns SectionBindMonitor, that has been set via {@link #setBindMonitor(SectionBindMonitor)}.
+     *
+     * @return SectionBindMonitor or null.
+     */
+    @Nullable
+    public SectionBindMonitor getBindMonitor() {
+        return bindMonitor;
+    }
+
     /**
      * Creates {@link HeaderManager} to interact with {@link SectionHeaderLayout}.
      *
@@ -164,20 +311,27 @@ public class SectionDataManager implements SectionManager, PositionManager {
     private void insertSection(int section, SectionAdapterWrapper adapterWrapper, SectionItemSwipeCallback swipeCallback, boolean notify) {
         checkFreeType();
         checkSectionIndex(section, true);
-        adapterWrapper.setSection(section);
+        adapterWrapper.setSectionType(freeType);
         adapterWrapper.setItemManager(sectionItemManager);
         int start = getSectionFirstPos(section);
         int cnt = adapterWrapper.getItemCount() + adapterWrapper.getHeaderVisibilityInt();
-        int posSum = (section > 0 ? sectionToPosSum.get(section - 1) : 0) + cnt;
         typeToAdapter.put(freeType, adapterWrapper);
         if (swipeCallback != null) {
             typeToCallback.put(freeType, swipeCallback);
         }
-        sectionToType.add(section, freeType);
-        sectionToPosSum.add(section, posSum);
+        if (itemKeyIndex != null) {
+            itemKeyIndex.addSection(freeType, adapterWrapper);
+        }
+        long startTime = SectionMetrics.ENABLED && metrics != null ? System.nanoTime() : 0;
+        positionIndex.insert(section, freeType, cnt, adapterWrapper.isHeaderVisible());
+        if (SectionMetrics.ENABLED && metrics != null) {
+            metrics.recordPosSumUpdate(positionIndex.size() - section, System.nanoTime() - startTime);
+        }
         freeType++;
-        updatePosSum(section + 1, cnt, true);
         if (notify) {
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_SECTION_INSERTED);
+            }
             adapter.notifyItemRangeInserted(start, cnt);
             if (headerManager != null) {
                 headerManager.checkFirstVisiblePos();
@@ -185,6 +339,52 @@ public class SectionDataManager implements SectionManager, PositionManager {
         }
     }
 
+    @Override
+    public void addSections(@NonNull List<SectionEntry> entries) {
+        insertSections(getSectionCount(), entries);
+    }
+
+    @Override
+    public void insertSections(int section, @NonNull List<SectionEntry> entries) {
+        checkSectionIndex(section, true);
+        int n = entries.size();
+        if (n == 0) return;
+        checkFreeTypes(n);
+        Object[] keys = new Object[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = entries.get(i).key;
+        }
+        checkSectionKeys(keys, false);
+        short[] types = new short[n];
+        int[] cnts = new int[n];
+        boolean[] headers = new boolean[n];
+        int start = getSectionFirstPos(section);
+        int totalCnt = 0;
+        for (int i = 0; i < n; i++) {
+            SectionEntry entry = entries.get(i);
+            SectionAdapterWrapper adapterWrapper = entry.createAdapterWrapper();
+            types[i] = registerSection(adapterWrapper, entry.swipeCallback);
+            if (keys[i] != null) {
+                attachSectionHandle(new SectionHandle(keys[i], this, types[i]));
+            }
+            cnts[i] = adapterWrapper.getItemCount() + adapterWrapper.getHeaderVisibilityInt();
+            headers[i] = adapterWrapper.isHeaderVisible();
+            totalCnt += cnts[i];
+        }
+        long startTime = SectionMetrics.ENABLED && metrics != null ? System.nanoTime() : 0;
+        positionIndex.insertAll(section, types, cnts, headers, n);
+        if (SectionMetrics.ENABLED && metrics != null) {
+            metrics.recordPosSumUpdate(positionIndex.size() - section, System.nanoTime() - startTime);
+            metrics.recordNotify(SectionMetrics.NOTIFY_SECTION_INSERTED);
+        }
+        if (totalCnt > 0) {
+            adapter.notifyItemRangeInserted(start, totalCnt);
+        }
+        if (headerManager != null) {
+            headerManager.checkFirstVisiblePos();
+        }
+    }
+
     @Override
     public void replaceSection(int section, @NonNull SimpleSectionAdapter simpleSectionAdapter) {
         replaceSection(section, simpleSectionAdapter, null);
@@ -212,8 +412,16 @@ public class SectionDataManager implements SectionManager, PositionManager {
         int start = getSectionFirstPos(section);
         int prevCnt = getSectionRealItemCount(section);
         int newCnt = adapterWrapper.getItemCount() + adapterWrapper.getHeaderVisibilityInt();
+        SectionHandle handle = typeToHandle.get(positionIndex.getType(section));
         removeSection(section, false);
         insertSection(section, adapterWrapper, swipeCallback, false);
+        if (handle != null) {
+            handle.sectionType = positionIndex.getType(section);
+            attachSectionHandle(handle);
+        }
+        if (SectionMetrics.ENABLED && metrics != null) {
+            metrics.recordNotify(SectionMetrics.NOTIFY_SECTION_REPLACED);
+        }
         adapter.notifyItemRangeChanged(start, Math.min(newCnt, prevCnt));
         if (newCnt < prevCnt) {
             adapter.notifyItemRangeRemoved(start + newCnt, prevCnt - newCnt);
@@ -232,20 +440,33 @@ public class SectionDataManager implements SectionManager, PositionManager {
 
     private void removeSection(int section, boolean notify) {
         checkSectionIndex(section);
-        short sectionType = sectionToType.get(section);
+        short sectionType = positionIndex.getType(section);
         int cnt = getSectionRealItemCount(section);
         int start = getSectionFirstPos(section);
         SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
         if (adapterWrapper.getHeaderType() != SectionAdapter.NO_HEADER_TYPE) {
             removeSectionWithType(adapterWrapper.getHeaderType(), sectionType);
         }
+        if (bindMonitor != null) {
+            bindMonitor.remove(sectionType);
+        }
         adapterWrapper.resetAdapter();
         typeToAdapter.remove(sectionType);
         typeToCallback.remove(sectionType);
-        sectionToType.remove(section);
-        sectionToPosSum.remove(section);
-        updatePosSum(section, -cnt, true);
+        detachSectionHandle(sectionType);
+        if (itemKeyIndex != null) {
+            itemKeyIndex.removeSection(sectionType);
+        }
+        callbackEpoch++;
+        long startTime = SectionMetrics.ENABLED && metrics != null ? System.nanoTime() : 0;
+        positionIndex.remove(section);
+        if (SectionMetrics.ENABLED && metrics != null) {
+            metrics.recordPosSumUpdate(positionIndex.size() - section, System.nanoTime() - startTime);
+        }
         if (notify) {
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_SECTION_REMOVED);
+            }
             adapter.notifyItemRangeRemoved(start, cnt);
             if (headerManager != null) {
                 headerManager.checkFirstVisiblePos();
@@ -253,14 +474,133 @@ public class SectionDataManager implements SectionManager, PositionManager {
         }
     }
 
+    @Override
+    public void removeSections(int section, int count) {
+        checkSectionIndex(section, true);
+        if (count < 0 || section + count > getSectionCount()) {
+            throw new IndexOutOfBoundsException("Section range [" + section + ", " + (section + count) +
+                    ") is out of range. Current section count is " + getSectionCount() + ".");
+        }
+        if (count == 0) return;
+        int start = getSectionFirstPos(section);
+        unregisterSections(section, count);
+        long startTime = SectionMetrics.ENABLED && metrics != null ? System.nanoTime() : 0;
+        int cnt = positionIndex.removeRange(section, count);
+        if (SectionMetrics.ENABLED && metrics != null) {
+            metrics.recordPosSumUpdate(positionIndex.size() - section, System.nanoTime() - startTime);
+            metrics.recordNotify(SectionMetrics.NOTIFY_SECTION_REMOVED);
+        }
+        if (cnt > 0) {
+            adapter.notifyItemRangeRemoved(start, cnt);
+        }
+        if (headerManager != null) {
+            headerManager.checkFirstVisiblePos();
+        }
+    }
+
+    @Override
+    public void setSections(@NonNull SectionListSnapshot snapshot) {
+        if (snapshot.isInstalled) {
+            throw new IllegalArgumentException("SectionListSnapshot has already been installed.");
+        }
+        int n = snapshot.getSectionCount();
+        checkFreeTypes(n);
+        checkSectionKeys(snapshot.keys, true);
+        snapshot.isInstalled = true;
+        int oldCnt = getTotalItemCount();
+        // Handles of the keys present in the snapshot stay valid, like in replaceSection().
+        HashMap<Object, SectionHandle> prevHandles = keyToHandle.isEmpty() ? null : new HashMap<>(keyToHandle);
+        unregisterSections(0, getSectionCount());
+        short[] types = new short[n];
+        for (int i = 0; i < n; i++) {
+            types[i] = registerSection(snapshot.adapterWrappers[i], snapshot.swipeCallbacks[i]);
+            Object key = snapshot.keys[i];
+            if (key != null) {
+                SectionHandle handle = prevHandles != null ? prevHandles.get(key) : null;
+                if (handle != null) {
+                    handle.sectionType = types[i];
+                } else {
+                    handle = new SectionHandle(key, this, types[i]);
+                }
+                attachSectionHandle(handle);
+            }
+        }
+        long startTime = SectionMetrics.ENABLED && metrics != null ? System.nanoTime() : 0;
+        positionIndex.set(types, snapshot.posSum, snapshot.headers, n);
+        if (SectionMetrics.ENABLED && metrics != null) {
+            metrics.recordPosSumUpdate(n, System.nanoTime() - startTime);
+        }
+        if (oldCnt == 0) {
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_SECTION_INSERTED);
+            }
+            if (snapshot.getTotalItemCount() > 0) {
+                adapter.notifyItemRangeInserted(0, snapshot.getTotalItemCount());
+            }
+        } else {
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_DATA_SET_CHANGED);
+            }
+            adapter.notifyDataSetChanged();
+        }
+        if (headerManager != null) {
+            headerManager.checkFirstVisiblePos();
+        }
+    }
+
+    @Override
+    public void clearSections() {
+        removeSections(0, getSectionCount());
+    }
+
+    @Override
+    public void moveSection(int fromSection, int toSection) {
+        checkSectionIndex(fromSection);
+        checkSectionIndex(toSection);
+        if (fromSection == toSection) return;
+        int start = getSectionFirstPos(fromSection);
+        int cnt = getSectionRealItemCount(fromSection);
+        long startTime = SectionMetrics.ENABLED && metrics != null ? System.nanoTime() : 0;
+        positionIndex.move(fromSection, toSection);
+        if (SectionMetrics.ENABLED && metrics != null) {
+            metrics.recordPosSumUpdate(Math.abs(toSection - fromSection) + 1, System.nanoTime() - startTime);
+            metrics.recordNotify(SectionMetrics.NOTIFY_SECTION_MOVED);
+        }
+        int newStart = getSectionFirstPos(toSection);
+        if (cnt > MAX_MOVED_ITEM_COUNT) {
+            adapter.notifyItemRangeRemoved(start, cnt);
+            adapter.notifyItemRangeInserted(newStart, cnt);
+        } else if (fromSection < toSection) {
+            // Each move takes the first item of the section and puts it after the last one.
+            for (int i = 0; i < cnt; i++) {
+                adapter.notifyItemMoved(start, newStart + cnt - 1);
+            }
+        } else {
+            // Each move takes the last item of the section and puts it before the first one.
+            for (int i = 0; i < cnt; i++) {
+                adapter.notifyItemMoved(start + cnt - 1, newStart);
+            }
+        }
+        if (headerManager != null) {
+            headerManager.checkFirstVisiblePos();
+        }
+    }
+
     @Override
     public void updateSection(int section) {
         checkSectionIndex(section);
-        short sectionType = sectionToType.get(section);
+        short sectionType = positionIndex.getType(section);
         SectionAdapterWrapper sectionAdapter = typeToAdapter.get(sectionType);
         int oldItemsCount = getSectionRealItemCount(section);
         int newItemsCount = sectionAdapter.getItemCount() + sectionAdapter.getHeaderVisibilityInt();
-        updatePosSum(section, newItemsCount - oldItemsCount, false);
+        positionIndex.setHeaderVisible(section, sectionAdapter.isHeaderVisible());
+        updatePosSum(section, newItemsCount - oldItemsCount);
+        if (itemKeyIndex != null) {
+            itemKeyIndex.invalidate(sectionType);
+        }
+        if (SectionMetrics.ENABLED && metrics != null) {
+            metrics.recordNotify(SectionMetrics.NOTIFY_SECTION_UPDATED);
+        }
         if (oldItemsCount < newItemsCount) {
             adapter.notifyItemRangeInserted(getSectionFirstPos(section) + oldItemsCount,
                     newItemsCount - oldItemsCount);
@@ -273,39 +613,87 @@ public class SectionDataManager implements SectionManager, PositionManager {
             adapter.notifyItemRangeChanged(getSectionFirstPos(section), changedCnt);
         }
         if (headerManager != null) {
-            headerManager.updateHeaderView(sectionType);
+            headerManager.updateHeaderView(sectionType, null);
         }
     }
 
     @Override
     public void setSwipeCallback(int section, @NonNull SectionItemSwipeCallback swipeCallback) {
         checkSectionIndex(section);
-        short sectionType = sectionToType.get(section);
+        short sectionType = positionIndex.getType(section);
         typeToCallback.put(sectionType, swipeCallback);
+        callbackEpoch++;
     }
 
     @Override
     public void removeSwipeCallback(int section) {
         checkSectionIndex(section);
-        short sectionType = sectionToType.get(section);
+        short sectionType = positionIndex.getType(section);
         typeToCallback.remove(sectionType);
+        callbackEpoch++;
     }
 
     @Override
     public <T extends BaseSectionAdapter> T getSectionAdapter(int section) {
         checkSectionIndex(section);
-        short sectionType = sectionToType.get(section);
+        short sectionType = positionIndex.getType(section);
         SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
         return adapterWrapper.getAdapter();
     }
 
+    @Override
+    public SectionHandle setSectionKey(int section, @NonNull Object key) {
+        checkSectionIndex(section);
+        short sectionType = positionIndex.getType(section);
+        SectionHandle handle = keyToHandle.get(key);
+        if (handle != null) {
+            if (handle.sectionType == sectionType) return handle;
+            throw new IllegalArgumentException("Section key " + key + " is already used by section "
+                    + handle.getSection() + ".");
+        }
+        detachSectionHandle(sectionType);
+        handle = new SectionHandle(key, this, sectionType);
+        attachSectionHandle(handle);
+        return handle;
+    }
+
+    @Override
+    public SectionHandle getSectionHandle(@NonNull Object key) {
+        return keyToHandle.get(key);
+    }
+
+    @Override
+    public int indexOfSection(@NonNull Object key) {
+        SectionHandle handle = keyToHandle.get(key);
+        return handle != null ? handle.getSection() : -1;
+    }
+
     @Override
     public SectionItemSwipeCallback getSwipeCallback(int section) {
         checkSectionIndex(section);
-        short sectionType = sectionToType.get(section);
+        short sectionType = positionIndex.getType(section);
         return typeToCallback.get(sectionType);
     }
 
+    @Override
+    public void scrollToSection(int section, int offset, boolean smooth) {
+        checkSectionIndex(section);
+        checkAttachedToRecyclerView();
+        scrollToAdapterPos(getSectionFirstPos(section), offset, smooth);
+    }
+
+    @Override
+    public void scrollToSectionItem(int section, int pos, int offset, boolean smooth) {
+        checkSectionIndex(section);
+        checkAttachedToRecyclerView();
+        checkSectionItemIndex(section, pos);
+        int pinnedHeaderHeight = 0;
+        if (isSectionHeaderVisible(section) && isSectionHeaderPinned(section)) {
+            pinnedHeaderHeight = getHeaderSize(section);
+        }
+        scrollToAdapterPos(getAdapterPos(section, pos), offset + pinnedHeaderHeight, smooth);
+    }
+
     /* END SECTION MANAGER */
     /* ADAPTER */
 
@@ -332,20 +720,38 @@ public class SectionDataManager implements SectionManager, PositionManager {
          */
         @Override
         public ViewHolderWrapper onCreateViewHolder(ViewGroup parent, int type) {
-            BaseSectionAdapter.ViewHolder viewHolder;
-            if (isTypeHeader(type)) {
+            long startTime = SectionMetrics.ENABLED && metrics != null ? System.nanoTime() : 0;
+            boolean isHeader = isTypeHeader(type);
+            short sectionType;
+            if (isHeader) {
                 short headerType = (short) type;
                 Set<Short> sectionTypes = headerTypeToSectionTypes.get(headerType);
-                short sectionType = sectionTypes.iterator().next();
-                SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
-                viewHolder = adapterWrapper.onCreateHeaderViewHolder(parent);
+                sectionType = sectionTypes.iterator().next();
             } else {
-                short itemType = (short) (type);
-                short sectionType = (short) (type >> 16);
-                SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
-                viewHolder = adapterWrapper.onCreateViewHolder(parent, itemType);
+                sectionType = (short) (type >> 16);
+            }
+            SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
+            boolean isTraced = SectionTrace.isEnabled();
+            if (isTraced) {
+                SectionTrace.beginSection(SectionTrace.CREATE_VIEW_HOLDER, adapterWrapper);
             }
-            ViewHolderWrapper viewHolderWrapper = new ViewHolderWrapper(viewHolder);
+            BaseSectionAdapter.ViewHolder viewHolder;
+            try {
+                if (isHeader) {
+                    viewHolder = adapterWrapper.onCreateHeaderViewHolder(parent);
+                } else {
+                    short itemType = (short) (type);
+                    viewHolder = adapterWrapper.onCreateViewHolder(parent, itemType);
+                }
+            } finally {
+                if (isTraced) {
+                    SectionTrace.endSection();
+                }
+            }
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordCreate(sectionType, System.nanoTime() - startTime);
+            }
+            ViewHolderWrapper viewHolderWrapper = new ViewHolderWrapper(viewHolder, positionIndex);
             viewHolder.viewHolderWrapper = viewHolderWrapper;
             viewHolder.posManager = SectionDataManager.this;
             return viewHolderWrapper;
@@ -354,23 +760,57 @@ public class SectionDataManager implements SectionManager, PositionManager {
         /**
          * Uses position to determine section type and header type, if item view is a section header.
          * Obtains {@link BaseSectionAdapter.ViewHolder} from {@link ViewHolderWrapper} and passes the
-         * corresponding call to the BaseSectionAdapter via {@link SectionAdapterWrapper}.
+         * corresponding call to the BaseSectionAdapter via {@link SectionAdapterWrapper}. Section
+         * index and position in it are cached in ViewHolderWrapper, so the ViewHolder accessors
+         * don't search for them again until the sections change.
          */
         @Override
         public void onBindViewHolder(ViewHolderWrapper viewHolderWrapper, int position) {
-            int type = getItemViewType(position);
-            if (isTypeHeader(type)) {
-                int section = calcSection(position);
-                short sectionType = sectionToType.get(section);
-                SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
-                BaseSectionAdapter.HeaderViewHolder headerViewHolder = (BaseSectionAdapter.HeaderViewHolder) viewHolderWrapper.viewHolder;
-                adapterWrapper.onBindHeaderViewHolder(headerViewHolder);
-            } else {
-                short sectionType = (short) (type >> 16);
-                int sectionPos = calcPosInSection(position);
-                SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
-                BaseSectionAdapter.ItemViewHolder itemViewHolder = (BaseSectionAdapter.ItemViewHolder) viewHolderWrapper.viewHolder;
-                adapterWrapper.onBindViewHolder(itemViewHolder, sectionPos);
+            onBindViewHolder(viewHolderWrapper, position, Collections.emptyList());
+        }
+
+        /**
+         * Passes the payloads for a partial update to the BaseSectionAdapter the same way as
+         * {@link #onBindViewHolder(ViewHolderWrapper, int)}.
+         */
+        @Override
+        public void onBindViewHolder(ViewHolderWrapper viewHolderWrapper, int position, List<Object> payloads) {
+            boolean isSampled = bindMonitor != null && bindMonitor.shouldSample();
+            long startTime = isSampled || SectionMetrics.ENABLED && metrics != null ? System.nanoTime() : 0;
+            int section = positionIndex.calcSection(position);
+            short sectionType = positionIndex.getType(section);
+            SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
+            int sectionPos = position - positionIndex.getFirstPos(section) - adapterWrapper.getHeaderVisibilityInt();
+            boolean isHeader = sectionPos == -1;
+            viewHolderWrapper.cachePosition(position, section, sectionPos);
+            stampSwipeCallback(viewHolderWrapper, sectionType);
+            // ViewHolder of the item dragged to another section is rebound when the drag ends.
+            if (position == movedItemPos) return;
+            boolean isTraced = SectionTrace.isEnabled();
+            if (isTraced) {
+                SectionTrace.beginSection(SectionTrace.BIND_VIEW_HOLDER, adapterWrapper);
+            }
+            try {
+                if (isHeader) {
+                    BaseSectionAdapter.HeaderViewHolder headerViewHolder = (BaseSectionAdapter.HeaderViewHolder) viewHolderWrapper.viewHolder;
+                    adapterWrapper.onBindHeaderViewHolder(headerViewHolder, payloads);
+                } else {
+                    BaseSectionAdapter.ItemViewHolder itemViewHolder = (BaseSectionAdapter.ItemViewHolder) viewHolderWrapper.viewHolder;
+                    adapterWrapper.onBindViewHolder(itemViewHolder, sectionPos, payloads);
+                }
+            } finally {
+                if (isTraced) {
+                    SectionTrace.endSection();
+                }
+            }
+            if (isSampled || SectionMetrics.ENABLED && metrics != null) {
+                long bindTime = System.nanoTime() - startTime;
+                if (SectionMetrics.ENABLED && metrics != null) {
+                    metrics.recordBind(sectionType, bindTime);
+                }
+                if (isSampled) {
+                    bindMonitor.record(sectionType, adapterWrapper, bindTime);
+                }
             }
         }
 
@@ -379,6 +819,18 @@ public class SectionDataManager implements SectionManager, PositionManager {
             return getTotalItemCount();
         }
 
+        @Override
+        public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+            SectionDataManager.this.recyclerView = recyclerView;
+        }
+
+        @Override
+        public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+            if (SectionDataManager.this.recyclerView == recyclerView) {
+                SectionDataManager.this.recyclerView = null;
+            }
+        }
+
         /**
          * Item view type allows to determine section or header type, item type within section and
          * whether item view is a section header. It is an integer, consisted of two shorts as follows:
@@ -390,8 +842,9 @@ public class SectionDataManager implements SectionManager, PositionManager {
          */
         @Override
         public int getItemViewType(int pos) {
+            if (pos == movedItemPos) return movedItemViewType;
             int section = calcSection(pos);
-            short sectionType = sectionToType.get(section);
+            short sectionType = positionIndex.getType(section);
             int sectionPos = calcPosInSection(pos);
             SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
             if (adapterWrapper.isHeaderVisible() && getSectionFirstPos(section) == pos) {
@@ -402,6 +855,31 @@ public class SectionDataManager implements SectionManager, PositionManager {
             }
         }
 
+        /**
+         * Composes a stable ID from the section key and the item ID within the section. The
+         * section key occupies the high 32 bits, the item ID occupies the low 32 bits, which are
+         * {@link #HEADER_ITEM_ID} (<code>0x80000000</code>) for a section header, see
+         * {@link #setHasStableIds(boolean)}.
+         */
+        @Override
+        public long getItemId(int pos) {
+            if (pos == movedItemPos) return movedItemId;
+            int section = positionIndex.calcSection(pos);
+            short sectionType = positionIndex.getType(section);
+            SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
+            int sectionPos = pos - positionIndex.getFirstPos(section) - adapterWrapper.getHeaderVisibilityInt();
+            long sectionKey = (long) adapterWrapper.getSectionKey() << 32;
+            if (sectionPos == -1) {
+                return sectionKey | HEADER_ITEM_ID;
+            }
+            long itemId = adapterWrapper.getItemId(sectionPos);
+            if (itemId < 0 || itemId > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Item ID " + itemId + " is out of range. " +
+                        "It should be in [0, Integer.MAX_VALUE].");
+            }
+            return sectionKey | itemId;
+        }
+
     };
 
     /* END ADAPTER */
@@ -418,27 +896,120 @@ public class SectionDataManager implements SectionManager, PositionManager {
     private ItemTouchHelper.Callback swipeCallback = new ItemTouchHelper.Callback() {
 
         /**
-         * Restricts dragging for all items and swiping for section headers. Returns swipe flags
+         * Restricts dragging and swiping for section headers. Returns drag and swipe flags
          * obtained from corresponding {@link SectionItemSwipeCallback}, if it exists and the
          * swiping is enabled.
          */
         @Override
         public int getMovementFlags(RecyclerView recyclerView, RecyclerView.ViewHolder viewHolder) {
+            int dragFlags = 0;
             int swipeFlags = 0;
             if (!isTypeHeader(viewHolder.getItemViewType())) {
                 SectionItemSwipeCallback swipeCallback = getSwipeCallback(viewHolder);
-                if (swipeCallback != null && swipeCallback.isSwipeEnabled()) {
+                if (swipeCallback != null) {
                     ViewHolderWrapper viewHolderWrapper = (ViewHolderWrapper) viewHolder;
-                    swipeFlags = swipeCallback.getSwipeDirFlags(recyclerView, (BaseSectionAdapter.ItemViewHolder) viewHolderWrapper.viewHolder);
+                    BaseSectionAdapter.ItemViewHolder itemViewHolder = (BaseSectionAdapter.ItemViewHolder) viewHolderWrapper.viewHolder;
+                    dragFlags = swipeCallback.getDragDirFlags(recyclerView, itemViewHolder);
+                    if (swipeCallback.isSwipeEnabled()) {
+                        swipeFlags = swipeCallback.getSwipeDirFlags(recyclerView, itemViewHolder);
+                    }
                 }
             }
-            return ItemTouchHelper.Callback.makeMovementFlags(0, swipeFlags);
+            return ItemTouchHelper.Callback.makeMovementFlags(dragFlags, swipeFlags);
         }
 
+        /**
+         * Determines the section and the position in it, where the dragged item should be
+         * moved, and passes the corresponding call to the {@link SectionItemSwipeCallback}. When an
+         * item is moved to another section, only partial sums of the sections between them are
+         * updated, so each drag step over adjacent sections takes O(1).
+         * <p>
+         * View types and IDs of items include their section types and keys, so RecyclerView would
+         * drop the ViewHolder of the item moved to another section on the next layout and the drag
+         * would end. So the moved item keeps the view type and ID of its original section until
+         * the drag ends, and then it is rebound via {@link #clearView(RecyclerView, RecyclerView.ViewHolder)}.
+         */
         @Override
         public boolean onMove(RecyclerView recyclerView, RecyclerView.ViewHolder viewHolder,
                               RecyclerView.ViewHolder target) {
-            return false;
+            int from = viewHolder.getAdapterPosition();
+            int to = target.getAdapterPosition();
+            int totalCnt = getTotalItemCount();
+            if (!checkIndex(from, totalCnt) || !checkIndex(to, totalCnt) || from == to) return false;
+            SectionItemSwipeCallback swipeCallback = getSwipeCallback(viewHolder);
+            if (swipeCallback == null) return false;
+            BaseSectionAdapter.ItemViewHolder itemViewHolder = (BaseSectionAdapter.ItemViewHolder) ((ViewHolderWrapper) viewHolder).viewHolder;
+            int fromSection = calcSection(from);
+            int fromPos = calcPosInSection(from);
+            int toSection = calcSection(to);
+            int toPos = calcPosInSection(to);
+            if (toPos == -1) {
+                // Target is a header: moving down puts the item first after it, moving up puts
+                // the item last in the previous section.
+                if (to > from) {
+                    toPos = 0;
+                } else {
+                    if (toSection == 0) return false;
+                    toSection--;
+                    toPos = getSectionRealItemCount(toSection)
+                            - typeToAdapter.get(positionIndex.getType(toSection)).getHeaderVisibilityInt();
+                }
+            } else if (toSection != fromSection && to > from) {
+                toPos++;
+            }
+            if (toSection == fromSection) {
+                if (!swipeCallback.onMove(itemViewHolder, fromPos, toPos)) return false;
+            } else {
+                if (!swipeCallback.onMoveToSection(itemViewHolder, fromPos, toSection, toPos)) return false;
+                if (movedItemPos == RecyclerView.NO_POSITION) {
+                    movedItemViewType = viewHolder.getItemViewType();
+                    movedItemId = viewHolder.getItemId();
+                    movedItemPos = from;
+                }
+                stampSwipeCallback((ViewHolderWrapper) viewHolder, positionIndex.getType(toSection));
+                long startTime = SectionMetrics.ENABLED && metrics != null ? System.nanoTime() : 0;
+                if (fromSection < toSection) {
+                    positionIndex.update(fromSection, toSection, -1);
+                } else {
+                    positionIndex.update(toSection, fromSection, 1);
+                }
+                if (SectionMetrics.ENABLED && metrics != null) {
+                    metrics.recordPosSumUpdate(Math.abs(toSection - fromSection), System.nanoTime() - startTime);
+                }
+            }
+            if (itemKeyIndex != null) {
+                // The callback has moved the item in the adapters, so positions of their keys shift.
+                itemKeyIndex.invalidate(positionIndex.getType(fromSection));
+                if (toSection != fromSection) {
+                    itemKeyIndex.invalidate(positionIndex.getType(toSection));
+                }
+            }
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_ITEM_MOVED);
+            }
+            int newPos = getAdapterPos(toSection, toPos);
+            if (movedItemPos == from) {
+                movedItemPos = newPos;
+            }
+            adapter.notifyItemMoved(from, newPos);
+            if (headerManager != null) {
+                headerManager.checkFirstVisiblePos();
+            }
+            return true;
+        }
+
+        /**
+         * Scrolls RecyclerView at a fixed velocity, while the dragged item is out of its bounds,
+         * regardless of the size of the item and the time since the scroll has started.
+         */
+        @Override
+        public int interpolateOutOfBoundsScroll(RecyclerView recyclerView, int viewSize,
+                                                int viewSizeOutOfBounds, int totalSize,
+                                                long msSinceStartScroll) {
+            if (viewSizeOutOfBounds == 0) return 0;
+            float density = recyclerView.getResources().getDisplayMetrics().density;
+            int step = Math.max(1, Math.round(DRAG_SCROLL_DP_PER_FRAME * density));
+            return viewSizeOutOfBounds > 0 ? step : -step;
         }
 
         /**
@@ -492,10 +1063,18 @@ public class SectionDataManager implements SectionManager, PositionManager {
         }
 
         /**
-         * Passes the corresponding call to the {@link SectionItemSwipeCallback}.
+         * Passes the corresponding call to the {@link SectionItemSwipeCallback}. If the item has
+         * been moved to another section, rebinds it with the view type and ID of that section.
          */
         @Override
         public void clearView(RecyclerView recyclerView, RecyclerView.ViewHolder viewHolder) {
+            if (movedItemPos != RecyclerView.NO_POSITION) {
+                if (recyclerView.isComputingLayout()) {
+                    recyclerView.post(rebindMovedItem);
+                } else {
+                    rebindMovedItem.run();
+                }
+            }
             if (viewHolder.getAdapterPosition() >= 0) {
                 SectionItemSwipeCallback swipeCallback = getSwipeCallback(viewHolder);
                 if (swipeCallback != null) {
@@ -528,17 +1107,44 @@ public class SectionDataManager implements SectionManager, PositionManager {
 
     };
 
+    /**
+     * Stops keeping the original view type and ID of the item dragged to another section and
+     * notifies that it has changed, so that it is rebound by the adapter of its new section.
+     */
+    private Runnable rebindMovedItem = new Runnable() {
+        @Override
+        public void run() {
+            int pos = movedItemPos;
+            if (pos == RecyclerView.NO_POSITION) return;
+            movedItemPos = RecyclerView.NO_POSITION;
+            if (pos < getTotalItemCount()) {
+                adapter.notifyItemChanged(pos);
+            }
+        }
+    };
+
     /* END SWIPE CALLBACK */
     /* SECTION ITEM MANAGER */
 
     private SectionItemManager sectionItemManager = new SectionItemManager() {
 
+        @Override
+        public int getSection(short sectionType) {
+            return positionIndex.indexOf(sectionType);
+        }
+
         @Override
         public void notifyInserted(int section, int pos) {
             checkSectionIndex(section);
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_ITEM_INSERTED);
+            }
             checkSectionItemIndex(section, pos, true);
             checkSectionItemCntConsistency(section, 1);
-            updatePosSum(section, 1, false);
+            updatePosSum(section, 1);
+            if (itemKeyIndex != null) {
+                itemKeyIndex.onInserted(positionIndex.getType(section), pos, 1);
+            }
             int adapterPos = getAdapterPos(section, pos);
             adapter.notifyItemInserted(adapterPos);
             if (headerManager != null) {
@@ -549,9 +1155,15 @@ public class SectionDataManager implements SectionManager, PositionManager {
         @Override
         public void notifyRemoved(int section, int pos) {
             checkSectionIndex(section);
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_ITEM_REMOVED);
+            }
             checkSectionItemIndex(section, pos);
             checkSectionItemCntConsistency(section, -1);
-            updatePosSum(section, -1, false);
+            updatePosSum(section, -1);
+            if (itemKeyIndex != null) {
+                itemKeyIndex.onRemoved(positionIndex.getType(section), pos, 1);
+            }
             int adapterPos = getAdapterPos(section, pos);
             adapter.notifyItemRemoved(adapterPos);
             if (headerManager != null) {
@@ -560,11 +1172,17 @@ public class SectionDataManager implements SectionManager, PositionManager {
         }
 
         @Override
-        public void notifyChanged(int section, int pos) {
+        public void notifyChanged(int section, int pos, Object payload) {
             checkSectionIndex(section);
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_ITEM_CHANGED);
+            }
             checkSectionItemIndex(section, pos);
+            if (itemKeyIndex != null) {
+                itemKeyIndex.onChanged(positionIndex.getType(section), pos, 1);
+            }
             int adapterPos = getAdapterPos(section, pos);
-            adapter.notifyItemChanged(adapterPos);
+            adapter.notifyItemChanged(adapterPos, payload);
             if (headerManager != null) {
                 headerManager.checkFirstVisiblePos();
             }
@@ -573,10 +1191,16 @@ public class SectionDataManager implements SectionManager, PositionManager {
         @Override
         public void notifyRangeInserted(int section, int startPos, int cnt) {
             checkSectionIndex(section);
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_ITEM_RANGE_INSERTED);
+            }
             checkSectionItemIndex(section, startPos, true);
             checkRangeItemCnt(cnt);
             checkSectionItemCntConsistency(section, cnt);
-            updatePosSum(section, cnt, false);
+            updatePosSum(section, cnt);
+            if (itemKeyIndex != null) {
+                itemKeyIndex.onInserted(positionIndex.getType(section), startPos, cnt);
+            }
             int adapterStartPos = getAdapterPos(section, startPos);
             adapter.notifyItemRangeInserted(adapterStartPos, cnt);
             if (headerManager != null) {
@@ -587,12 +1211,18 @@ public class SectionDataManager implements SectionManager, PositionManager {
         @Override
         public void notifyRangeRemoved(int section, int startPos, int cnt) {
             checkSectionIndex(section);
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_ITEM_RANGE_REMOVED);
+            }
             checkSectionItemIndex(section, startPos);
             checkRangeItemCnt(cnt);
             checkRangeBounds(section, startPos, cnt);
             checkSectionItemCntConsistency(section, -cnt);
             int adapterStartPos = getAdapterPos(section, startPos);
-            updatePosSum(section, -cnt, false);
+            updatePosSum(section, -cnt);
+            if (itemKeyIndex != null) {
+                itemKeyIndex.onRemoved(positionIndex.getType(section), startPos, cnt);
+            }
             adapter.notifyItemRangeRemoved(adapterStartPos, cnt);
             if (headerManager != null) {
                 headerManager.checkFirstVisiblePos();
@@ -601,13 +1231,19 @@ public class SectionDataManager implements SectionManager, PositionManager {
         }
 
         @Override
-        public void notifyRangeChanged(int section, int startPos, int cnt) {
+        public void notifyRangeChanged(int section, int startPos, int cnt, Object payload) {
             checkSectionIndex(section);
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_ITEM_RANGE_CHANGED);
+            }
             checkSectionItemIndex(section, startPos);
             checkRangeItemCnt(cnt);
             checkRangeBounds(section, startPos, cnt);
+            if (itemKeyIndex != null) {
+                itemKeyIndex.onChanged(positionIndex.getType(section), startPos, cnt);
+            }
             int adapterStartPos = getAdapterPos(section, startPos);
-            adapter.notifyItemRangeChanged(adapterStartPos, cnt);
+            adapter.notifyItemRangeChanged(adapterStartPos, cnt, payload);
             if (headerManager != null) {
                 headerManager.checkFirstVisiblePos();
             }
@@ -616,7 +1252,13 @@ public class SectionDataManager implements SectionManager, PositionManager {
         @Override
         public void notifyDataSetChanged(int section) {
             checkSectionIndex(section);
-            short sectionType = sectionToType.get(section);
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_DATA_SET_CHANGED);
+            }
+            short sectionType = positionIndex.getType(section);
+            if (itemKeyIndex != null) {
+                itemKeyIndex.invalidate(sectionType);
+            }
             SectionAdapterWrapper sectionAdapter = typeToAdapter.get(sectionType);
             int oldItemsCount = getSectionItemCount(section);
             int newItemsCount = sectionAdapter.getItemCount();
@@ -627,15 +1269,21 @@ public class SectionDataManager implements SectionManager, PositionManager {
             }
             int changedCnt = Math.min(oldItemsCount, newItemsCount);
             if (changedCnt > 0) {
-                notifyRangeChanged(section, 0, changedCnt);
+                notifyRangeChanged(section, 0, changedCnt, null);
             }
         }
 
         @Override
         public void notifyMoved(int section, int fromPos, int toPos) {
             checkSectionIndex(section);
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_ITEM_MOVED);
+            }
             checkSectionItemIndex(section, fromPos);
             checkSectionItemIndex(section, toPos);
+            if (itemKeyIndex != null) {
+                itemKeyIndex.invalidate(positionIndex.getType(section));
+            }
             int adapterFromPos = getAdapterPos(section, fromPos);
             int adapterToPos = getAdapterPos(section, toPos);
             adapter.notifyItemMoved(adapterFromPos, adapterToPos);
@@ -645,26 +1293,33 @@ public class SectionDataManager implements SectionManager, PositionManager {
         }
 
         @Override
-        public void notifyHeaderChanged(int section) {
+        public void notifyHeaderChanged(int section, Object payload) {
             checkSectionIndex(section);
-            short sectionType = sectionToType.get(section);
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_HEADER_CHANGED);
+            }
+            short sectionType = positionIndex.getType(section);
             SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
             if (!adapterWrapper.isHeaderVisible()) return;
             int headerPos = getSectionFirstPos(section);
-            adapter.notifyItemChanged(headerPos);
+            adapter.notifyItemChanged(headerPos, payload);
             if (headerManager != null) {
-                headerManager.updateHeaderView(sectionType);
+                headerManager.updateHeaderView(sectionType, payload);
             }
         }
 
         @Override
         public void notifyHeaderVisibilityChanged(int section, boolean visible) {
             checkSectionIndex(section);
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_HEADER_VISIBILITY_CHANGED);
+            }
+            positionIndex.setHeaderVisible(section, visible);
             if (visible) {
-                updatePosSum(section, 1, false);
+                updatePosSum(section, 1);
                 adapter.notifyItemInserted(getSectionFirstPos(section));
             } else {
-                updatePosSum(section, -1, false);
+                updatePosSum(section, -1);
                 adapter.notifyItemRemoved(getSectionFirstPos(section));
             }
             if (headerManager != null) {
@@ -675,6 +1330,9 @@ public class SectionDataManager implements SectionManager, PositionManager {
         @Override
         public void notifyHeaderPinnedStateChanged(int section, boolean pinned) {
             checkSectionIndex(section);
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordNotify(SectionMetrics.NOTIFY_HEADER_PINNED_STATE_CHANGED);
+            }
             if (headerManager != null) {
                 headerManager.checkIsHeaderViewChanged();
             }
@@ -700,7 +1358,7 @@ public class SectionDataManager implements SectionManager, PositionManager {
         if (!checkIndex(adapterPos, getTotalItemCount())) {
             return -1;
         }
-        return upperBoundBinarySearch(sectionToPosSum, adapterPos);
+        return positionIndex.calcSection(adapterPos);
     }
 
     @Override
@@ -709,9 +1367,9 @@ public class SectionDataManager implements SectionManager, PositionManager {
             return -1;
         }
         int section = calcSection(adapterPos);
-        short sectionType = sectionToType.get(section);
+        short sectionType = positionIndex.getType(section);
         SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
-        return adapterPos - (section > 0 ? sectionToPosSum.get(section - 1) : 0)
+        return adapterPos - positionIndex.getFirstPos(section)
                 - adapterWrapper.getHeaderVisibilityInt();
     }
 
@@ -759,9 +1417,7 @@ public class SectionDataManager implements SectionManager, PositionManager {
 
         @Override
         public int getHeaderAdapterPos(short sectionType) {
-            SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
-            int section = adapterWrapper.getSection();
-            return getSectionFirstPos(section);
+            return getSectionFirstPos(positionIndex.indexOf(sectionType));
         }
 
         /* END HEADER POSITION PROVIDER */
@@ -769,31 +1425,51 @@ public class SectionDataManager implements SectionManager, PositionManager {
         /**
          * Checks, whether the header should be updated (added/removed/translated) based on the first
          * visible position (e.g. called after swipe). To update the contents of the corresponding
-         * header BaseSectionAdapter.ViewHolder you should call {@link #updateHeaderView(short)}.
+         * header BaseSectionAdapter.ViewHolder you should call {@link #updateHeaderView(short, Object)}.
          * <p>
          * Interacts with header view via {@link HeaderViewManager}. Current header view section type
          * is stored in {@link #topSectionType}.
          */
         void checkIsHeaderViewChanged() {
+            boolean isTraced = SectionTrace.isEnabled();
+            if (isTraced) {
+                SectionTrace.beginSection(SectionTrace.CHECK_HEADER_VIEW);
+            }
+            try {
+                checkIsHeaderViewChangedInternal();
+            } finally {
+                if (isTraced) {
+                    SectionTrace.endSection();
+                }
+            }
+        }
+
+        private void checkIsHeaderViewChangedInternal() {
             int topPos = headerViewManager.getFirstVisiblePos();
             if (!checkIndex(topPos, getTotalItemCount())) {
                 removeHeaderView();
                 return;
             }
             int section = calcSection(topPos);
-            short sectionType = sectionToType.get(section);
+            short sectionType = positionIndex.getType(section);
             SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
             if (adapterWrapper.isHeaderVisible() && adapterWrapper.isHeaderPinned()) {
                 if (sectionType == topSectionType) {
                     int nextHeaderPos = getSectionFirstPos(section + 1);
                     headerViewManager.translateHeaderView(nextHeaderPos);
+                    if (SectionMetrics.ENABLED && metrics != null) {
+                        metrics.recordHeaderEvent(SectionMetrics.HEADER_TRANSLATE);
+                    }
                 } else {
                     short headerType = adapterWrapper.getHeaderType();
                     if (headerType == topHeaderType) {
                         topSectionType = sectionType;
-                        updateHeaderView(topSectionType);
+                        updateHeaderView(topSectionType, null);
                         int nextHeaderPos = getSectionFirstPos(section + 1);
                         headerViewManager.translateHeaderView(nextHeaderPos);
+                        if (SectionMetrics.ENABLED && metrics != null) {
+                            metrics.recordHeaderEvent(SectionMetrics.HEADER_SWAP);
+                        }
                     } else {
                         addHeaderView(section);
                     }
@@ -817,12 +1493,16 @@ public class SectionDataManager implements SectionManager, PositionManager {
          * @param section Index of the top section.
          */
         private void addHeaderView(int section) {
-            topSectionType = sectionToType.get(section);
+            if (SectionMetrics.ENABLED && metrics != null) {
+                metrics.recordHeaderEvent(topSectionType == NO_SECTION_TYPE
+                        ? SectionMetrics.HEADER_ADD : SectionMetrics.HEADER_SWAP);
+            }
+            topSectionType = positionIndex.getType(section);
             SectionAdapterWrapper adapterWrapper = typeToAdapter.get(topSectionType);
             topHeaderType = adapterWrapper.getHeaderType();
             BaseSectionAdapter.HeaderViewHolder headerViewHolder = getDuplicatedHeaderVH(topSectionType);
             headerViewHolder.sectionType = topSectionType;
-            adapterWrapper.onBindHeaderViewHolder(headerViewHolder);
+            adapterWrapper.onBindHeaderViewHolder(headerViewHolder, Collections.emptyList());
             int nextHeaderPos = getSectionFirstPos(section + 1);
             headerViewManager.addHeaderView(headerViewHolder.itemView, nextHeaderPos);
         }
@@ -832,13 +1512,16 @@ public class SectionDataManager implements SectionManager, PositionManager {
          * current {@link #topSectionType}.
          *
          * @param sectionType Type of the updated section.
+         * @param payload     Optional payload for a partial update or null for a full update.
          */
-        private void updateHeaderView(short sectionType) {
+        private void updateHeaderView(short sectionType, Object payload) {
             if (sectionType != topSectionType) return;
             BaseSectionAdapter.HeaderViewHolder headerViewHolder = getDuplicatedHeaderVH(sectionType);
             SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
             headerViewHolder.sectionType = sectionType;
-            adapterWrapper.onBindHeaderViewHolder(headerViewHolder);
+            List<Object> payloads = payload != null
+                    ? Collections.singletonList(payload) : Collections.emptyList();
+            adapterWrapper.onBindHeaderViewHolder(headerViewHolder, payloads);
         }
 
         /**
@@ -846,6 +1529,9 @@ public class SectionDataManager implements SectionManager, PositionManager {
          */
         private void removeHeaderView() {
             if (topSectionType != NO_SECTION_TYPE) {
+                if (SectionMetrics.ENABLED && metrics != null) {
+                    metrics.recordHeaderEvent(SectionMetrics.HEADER_REMOVE);
+                }
                 headerViewManager.removeHeaderView();
                 topSectionType = NO_SECTION_TYPE;
                 topHeaderType = SectionAdapter.NO_HEADER_TYPE;
@@ -897,8 +1583,8 @@ public class SectionDataManager implements SectionManager, PositionManager {
      *
      * @return Total number of items in RecyclerView.
      */
-    private int getTotalItemCount() {
-        return getSectionCount() > 0 ? sectionToPosSum.get(getSectionCount() - 1) : 0;
+    int getTotalItemCount() {
+        return positionIndex.getTotalCount();
     }
 
     /**
@@ -913,9 +1599,64 @@ public class SectionDataManager implements SectionManager, PositionManager {
         if (!checkIndex(adapterPos, getTotalItemCount())) {
             return null;
         }
-        int section = calcSection(adapterPos);
-        short sectionType = sectionToType.get(section);
-        return typeToCallback.get(sectionType);
+        ViewHolderWrapper viewHolderWrapper = (ViewHolderWrapper) viewHolder;
+        if (viewHolderWrapper.callbackEpoch != callbackEpoch) {
+            int section = calcSection(adapterPos);
+            stampSwipeCallback(viewHolderWrapper, positionIndex.getType(section));
+        }
+        return viewHolderWrapper.swipeCallback;
+    }
+
+    /**
+     * Stores the section type and its SectionItemSwipeCallback in the given ViewHolderWrapper with
+     * the current {@link #callbackEpoch}. Section type doesn't change when sections are inserted,
+     * removed or moved, so the stamp stays valid until the callbacks are changed.
+     *
+     * @param viewHolderWrapper ViewHolderWrapper to stamp.
+     * @param sectionType       Type of the section, that the ViewHolderWrapper belongs to.
+     */
+    private void stampSwipeCallback(ViewHolderWrapper viewHolderWrapper, short sectionType) {
+        viewHolderWrapper.sectionType = sectionType;
+        viewHolderWrapper.swipeCallback = typeToCallback.get(sectionType);
+        viewHolderWrapper.callbackEpoch = callbackEpoch;
+    }
+
+    /**
+     * Scrolls the attached RecyclerView to the given adapter position.
+     *
+     * @param adapterPos Global adapter position.
+     * @param offset     Distance in px between the start edge and the item.
+     * @param smooth     True to animate scrolling.
+     */
+    private void scrollToAdapterPos(int adapterPos, int offset, boolean smooth) {
+        if (smooth) {
+            SectionSmoothScroller.smoothScrollToPosition(recyclerView, adapterPos, offset);
+        } else {
+            SectionSmoothScroller.scrollToPosition(recyclerView, adapterPos, offset);
+        }
+    }
+
+    /**
+     * Returns the size of the given section header view along the layout orientation in px or 0,
+     * if it hasn't been laid out yet. Uses the header view in RecyclerView, if it is laid out, or
+     * the duplicated one from {@link HeaderManager}.
+     *
+     * @param section Index of the section.
+     * @return Header view height (width for horizontal layout) or 0.
+     */
+    private int getHeaderSize(int section) {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager == null) return 0;
+        View headerView = layoutManager.findViewByPosition(getSectionFirstPos(section));
+        if (headerView == null && headerManager != null) {
+            short headerType = typeToAdapter.get(getSectionType(section)).getHeaderType();
+            BaseSectionAdapter.HeaderViewHolder headerViewHolder = headerManager.typeToHeader.get(headerType);
+            if (headerViewHolder != null) {
+                headerView = headerViewHolder.itemView;
+            }
+        }
+        if (headerView == null) return 0;
+        return layoutManager.canScrollHorizontally() ? headerView.getWidth() : headerView.getHeight();
     }
 
     /**
@@ -929,9 +1670,9 @@ public class SectionDataManager implements SectionManager, PositionManager {
      */
     private int getAdapterPos(int section, int pos) {
         checkSectionIndex(section);
-        short sectionType = sectionToType.get(section);
+        short sectionType = positionIndex.getType(section);
         SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
-        return (section > 0 ? sectionToPosSum.get(section - 1) : 0) + pos + adapterWrapper.getHeaderVisibilityInt();
+        return positionIndex.getFirstPos(section) + pos + adapterWrapper.getHeaderVisibilityInt();
     }
 
     /**
@@ -941,9 +1682,9 @@ public class SectionDataManager implements SectionManager, PositionManager {
      * @param section Index of the section.
      * @return First global adapter position.
      */
-    private int getSectionFirstPos(int section) {
+    int getSectionFirstPos(int section) {
         checkSectionIndex(section, true);
-        return section > 0 ? sectionToPosSum.get(section - 1) : 0;
+        return positionIndex.getFirstPos(section);
     }
 
     /**
@@ -953,9 +1694,9 @@ public class SectionDataManager implements SectionManager, PositionManager {
      * @param section Index of the section.
      * @return Number of items.
      */
-    private int getSectionRealItemCount(int section) {
+    int getSectionRealItemCount(int section) {
         checkSectionIndex(section);
-        return sectionToPosSum.get(section) - (section > 0 ? sectionToPosSum.get(section - 1) : 0);
+        return positionIndex.getCount(section);
     }
 
     /**
@@ -966,11 +1707,87 @@ public class SectionDataManager implements SectionManager, PositionManager {
      * @return Number of items.
      */
     private int getSectionItemCount(int section) {
-        short sectionType = sectionToType.get(section);
+        short sectionType = positionIndex.getType(section);
         SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
         return getSectionRealItemCount(section) - adapterWrapper.getHeaderVisibilityInt();
     }
 
+    /**
+     * Returns the current index of the section with the given type in O(1).
+     *
+     * @param sectionType Type of the section.
+     * @return Index of the section or -1, if there is no section with the given type.
+     */
+    int indexOfSectionType(short sectionType) {
+        return positionIndex.indexOf(sectionType);
+    }
+
+    /**
+     * Returns the unique type of the given section, which doesn't change while the section
+     * exists, even if its index changes.
+     *
+     * @param section Index of the section.
+     * @return Section type.
+     */
+    short getSectionType(int section) {
+        checkSectionIndex(section);
+        return positionIndex.getType(section);
+    }
+
+    /**
+     * Returns the view type of the item at the given position in the given section, that is
+     * returned by its adapter.
+     *
+     * @param section Index of the section.
+     * @param pos     Item position in section.
+     * @return Item view type within the section.
+     */
+    short getSectionItemViewType(int section, int pos) {
+        return typeToAdapter.get(getSectionType(section)).getItemViewType(pos);
+    }
+
+    /**
+     * Returns the stable key of the given section, that is returned by its adapter.
+     *
+     * @param section Index of the section.
+     * @return Section key.
+     */
+    int getSectionKey(int section) {
+        return typeToAdapter.get(getSectionType(section)).getSectionKey();
+    }
+
+    /**
+     * Returns the key of the item at the given position in the given section, that is returned
+     * by its adapter.
+     *
+     * @param section Index of the section.
+     * @param pos     Item position in section.
+     * @return Item key or {@link BaseSectionAdapter#NO_ITEM_KEY}.
+     */
+    long getSectionItemKey(int section, int pos) {
+        return typeToAdapter.get(getSectionType(section)).getItemKey(pos);
+    }
+
+    /**
+     * Returns whether the header of the given section is currently visible.
+     *
+     * @param section Index of the section.
+     * @return True if the section has a visible header, false otherwise.
+     */
+    boolean isSectionHeaderVisible(int section) {
+        return typeToAdapter.get(getSectionType(section)).isHeaderVisible();
+    }
+
+    /**
+     * Returns whether the header of the given section is currently pinned.
+     *
+     * @param section Index of the section.
+     * @return True if the section has a pinned header, false otherwise.
+     */
+    boolean isSectionHeaderPinned(int section) {
+        return typeToAdapter.get(getSectionType(section)).isHeaderPinned();
+    }
+
     /**
      * Adds the given section type to {@link #headerTypeToSectionTypes}, that means that the
      * corresponding adapter is able to create HeaderViewHolder with the given header type.
@@ -985,6 +1802,104 @@ public class SectionDataManager implements SectionManager, PositionManager {
 
     }
 
+    /**
+     * Assigns the next free section type to the given SectionAdapterWrapper and registers it with
+     * its header type and SectionItemSwipeCallback. Doesn't update the position index.
+     *
+     * @param adapterWrapper SectionAdapterWrapper of the new section.
+     * @param swipeCallback  SectionItemSwipeCallback of the new section or null.
+     * @return Type of the new section.
+     */
+    private short registerSection(SectionAdapterWrapper adapterWrapper, SectionItemSwipeCallback swipeCallback) {
+        short sectionType = freeType++;
+        if (adapterWrapper.getHeaderType() != SectionAdapter.NO_HEADER_TYPE) {
+            addSectionWithHeaderType(adapterWrapper.getHeaderType(), sectionType);
+        }
+        adapterWrapper.setSectionType(sectionType);
+        adapterWrapper.setItemManager(sectionItemManager);
+        typeToAdapter.put(sectionType, adapterWrapper);
+        if (swipeCallback != null) {
+            typeToCallback.put(sectionType, swipeCallback);
+        }
+        if (itemKeyIndex != null) {
+            itemKeyIndex.addSection(sectionType, adapterWrapper);
+        }
+        return sectionType;
+    }
+
+    /**
+     * Unregisters <code>count</code> sections starting with the given index, resetting their
+     * adapters and cleaning up header types in bulk. Doesn't update the position index.
+     *
+     * @param section Index of the first section to unregister.
+     * @param count   Number of sections to unregister.
+     */
+    private void unregisterSections(int section, int count) {
+        for (int s = section; s < section + count; s++) {
+            short sectionType = positionIndex.getType(s);
+            SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
+            short headerType = adapterWrapper.getHeaderType();
+            if (headerType != SectionAdapter.NO_HEADER_TYPE) {
+                Set<Short> sectionTypes = headerTypeToSectionTypes.get(headerType);
+                if (sectionTypes != null) {
+                    sectionTypes.remove(sectionType);
+                }
+            }
+            if (bindMonitor != null) {
+                bindMonitor.remove(sectionType);
+            }
+            adapterWrapper.resetAdapter();
+            typeToAdapter.remove(sectionType);
+            typeToCallback.remove(sectionType);
+            detachSectionHandle(sectionType);
+            if (itemKeyIndex != null) {
+                itemKeyIndex.removeSection(sectionType);
+            }
+        }
+        callbackEpoch++;
+        removeUnusedHeaderTypes();
+    }
+
+    /**
+     * Registers the given SectionHandle in {@link #keyToHandle} and {@link #typeToHandle}.
+     *
+     * @param handle SectionHandle with the type of an existing section.
+     */
+    private void attachSectionHandle(SectionHandle handle) {
+        keyToHandle.put(handle.getKey(), handle);
+        typeToHandle.put(handle.sectionType, handle);
+    }
+
+    /**
+     * Unregisters SectionHandle of the section with the given type, if it has one, and marks it
+     * as detached.
+     *
+     * @param sectionType Type of the section.
+     */
+    private void detachSectionHandle(short sectionType) {
+        if (keyToHandle.isEmpty()) return;
+        SectionHandle handle = typeToHandle.get(sectionType);
+        if (handle == null) return;
+        typeToHandle.remove(sectionType);
+        keyToHandle.remove(handle.getKey());
+        handle.sectionType = NO_SECTION_TYPE;
+    }
+
+    /**
+     * Removes header types without sections from {@link #headerTypeToSectionTypes} and their cached
+     * HeaderViewHolders from HeaderManager's storage in a single pass.
+     */
+    private void removeUnusedHeaderTypes() {
+        for (int i = headerTypeToSectionTypes.size() - 1; i >= 0; i--) {
+            if (!headerTypeToSectionTypes.valueAt(i).isEmpty()) continue;
+            int headerType = headerTypeToSectionTypes.keyAt(i);
+            headerTypeToSectionTypes.removeAt(i);
+            if (headerManager != null) {
+                headerManager.typeToHeader.remove(headerType);
+            }
+        }
+    }
+
     /**
      * Removes the given section type from {@link #headerTypeToSectionTypes}. Removes cached HeaderViewHolder
      * from HeaderManager's storage if there are no more adapters with the given header type.
@@ -1005,59 +1920,27 @@ public class SectionDataManager implements SectionManager, PositionManager {
 
     /**
      * Updates by <code>cnt</code> items the partial sum array of item counts starting with section
-     * <code>startSection</code>. If <code>updateSection</code> is true, updates the section indexes
-     * of the corresponding adapters.
+     * <code>startSection</code>.
      *
-     * @param startSection  First section index to be updated.
-     * @param cnt           Value to be updated by.
-     * @param updateSection True if the adapters section indexes should be updated.
+     * @param startSection First section index to be updated.
+     * @param cnt          Value to be updated by.
      */
-    private void updatePosSum(int startSection, int cnt, boolean updateSection) {
-        for (int s = startSection; s < getSectionCount(); s++) {
-            if (updateSection) {
-                short sectionType = sectionToType.get(s);
-                typeToAdapter.get(sectionType).setSection(s);
-            }
-            int prevSum = sectionToPosSum.get(s);
-            sectionToPosSum.set(s, prevSum + cnt);
+    private void updatePosSum(int startSection, int cnt) {
+        long startTime = SectionMetrics.ENABLED && metrics != null ? System.nanoTime() : 0;
+        boolean isTraced = SectionTrace.isEnabled();
+        if (isTraced) {
+            SectionTrace.beginSection(SectionTrace.UPDATE_POS_SUM, startSection);
         }
-    }
-
-    /**
-     * Upper bound binary search implementation. Finds the first position in the list, where the
-     * value is greater than the given key. In other words, where the key value should be inserted
-     * (after other equal ones).
-     *
-     * @param list List where to search.
-     * @param key  Value to be found.
-     * @return Upper bound binary search result position.
-     */
-    private static int upperBoundBinarySearch(List<Integer> list, int key) {
-        int l = 0, r = list.size() - 1;
-        while (true) {
-            if (l == r) {
-                if (key < list.get(l)) {
-                    return l;
-                } else {
-                    return l + 1;
-                }
-            }
-            if (l + 1 == r) {
-                if (key < list.get(l)) {
-                    return l;
-                } else if (key < list.get(r)) {
-                    return r;
-                } else {
-                    return r + 1;
-                }
-            }
-            int m = (l + r) / 2;
-            if (key < list.get(m)) {
-                r = m;
-            } else {
-                l = m + 1;
+        try {
+            positionIndex.update(startSection, cnt);
+        } finally {
+            if (isTraced) {
+                SectionTrace.endSection();
             }
         }
+        if (SectionMetrics.ENABLED && metrics != null) {
+            metrics.recordPosSumUpdate(positionIndex.size() - startSection, System.nanoTime() - startTime);
+        }
     }
 
     /* CHECKS */
@@ -1130,7 +2013,7 @@ public class SectionDataManager implements SectionManager, PositionManager {
      * @param delta   Value on which the item count is being changed.
      */
     private void checkSectionItemCntConsistency(int section, int delta) {
-        short sectionType = sectionToType.get(section);
+        short sectionType = positionIndex.getType(section);
         SectionAdapterWrapper adapterWrapper = typeToAdapter.get(sectionType);
         int shouldBe = getSectionItemCount(section) + delta;
         int found = adapterWrapper.getItemCount();
@@ -1188,6 +2071,48 @@ public class SectionDataManager implements SectionManager, PositionManager {
         }
     }
 
+    /**
+     * Raises an exception if there are not enough available section types for <code>cnt</code>
+     * new sections.
+     *
+     * @param cnt Number of sections to be created.
+     */
+    private void checkFreeTypes(int cnt) {
+        if (freeType < 0 || freeType + cnt - 1 > Short.MAX_VALUE) {
+            throw new RuntimeException("Exceeded number of created sections, so there is no available section type.");
+        }
+    }
+
+    /**
+     * Raises an exception if the given keys contain duplicates or, unless all sections are
+     * replaced, keys of existing sections. Null keys are skipped.
+     *
+     * @param keys       Keys of the new sections.
+     * @param replaceAll True if the new sections replace all existing ones.
+     */
+    private void checkSectionKeys(Object[] keys, boolean replaceAll) {
+        Set<Object> newKeys = null;
+        for (Object key : keys) {
+            if (key == null) continue;
+            if (newKeys == null) {
+                newKeys = new HashSet<>();
+            }
+            if (!newKeys.add(key) || (!replaceAll && keyToHandle.containsKey(key))) {
+                throw new IllegalArgumentException("Section key " + key + " is already used.");
+            }
+        }
+    }
+
+    /**
+     * Raises an exception if the adapter hasn't been attached to any RecyclerView.
+     */
+    private void checkAttachedToRecyclerView() {
+        if (recyclerView == null) {
+            throw new RuntimeException("SectionDataManager's adapter hasn't been attached " +
+                    "to any RecyclerView.");
+        }
+    }
+
     /* END CHECKS */
 
 }
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Describes a section to be added via {@link SectionManager#addSections(java.util.List)} or
+ * {@link SectionManager#insertSections(int, java.util.List)}.
+ * <p>
+ * Constructors match the arguments of {@link SectionManager#addSection} methods: a section is
+ * represented by a {@link SimpleSectionAdapter} or a {@link SectionAdapter} with a header type and
+ * an optional {@link SectionItemSwipeCallback}. An optional key lets you find the section later via
+ * {@link SectionManager#getSectionHandle(Object)}.
+ */
+public final class SectionEntry {
+
+    final SimpleSectionAdapter simpleSectionAdapter;
+    final SectionAdapter sectionAdapter;
+    final SectionItemSwipeCallback swipeCallback;
+    final short headerType;
+    Object key;
+
+    public SectionEntry(@NonNull SimpleSectionAdapter simpleSectionAdapter) {
+        this(simpleSectionAdapter, null);
+    }
+
+    public SectionEntry(@NonNull SimpleSectionAdapter simpleSectionAdapter, SectionItemSwipeCallback swipeCallback) {
+        if (simpleSectionAdapter == null) {
+            throw new IllegalArgumentException("SimpleSectionAdapter cannot be null.");
+        }
+        this.simpleSectionAdapter = simpleSectionAdapter;
+        this.sectionAdapter = null;
+        this.swipeCallback = swipeCallback;
+        this.headerType = SectionAdapter.NO_HEADER_TYPE;
+    }
+
+    public SectionEntry(@NonNull SectionAdapter sectionAdapter, short headerType) {
+        this(sectionAdapter, null, headerType);
+    }
+
+    public SectionEntry(@NonNull SectionAdapter sectionAdapter, SectionItemSwipeCallback swipeCallback, short headerType) {
+        if (sectionAdapter == null) {
+            throw new IllegalArgumentException("SectionAdapter cannot be null.");
+        }
+        if (headerType == SectionAdapter.NO_HEADER_TYPE) {
+            throw new IllegalArgumentException("Header type cannot be equal to NO_HEADER_TYPE that is -1.");
+        }
+        this.simpleSectionAdapter = null;
+        this.sectionAdapter = sectionAdapter;
+        this.swipeCallback = swipeCallback;
+        this.headerType = headerType;
+    }
+
+    /**
+     * Sets the key to register the section with. Keys are compared by {@link Object#equals(Object)}
+     * and must be unique among the sections of a SectionDataManager.
+     *
+     * @param key Section key or null.
+     * @return This SectionEntry.
+     */
+    public SectionEntry setKey(@Nullable Object key) {
+        this.key = key;
+        return this;
+    }
+
+    SectionAdapterWrapper createAdapterWrapper() {
+        if (sectionAdapter != null) {
+            return new SectionAdapterWrapper(sectionAdapter, headerType);
+        } else {
+            return new SectionAdapterWrapper(simpleSectionAdapter);
+        }
+    }
+
+}
@@ -0,0 +1,478 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.os.Build;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Fast scroll thumb with a section label bubble for a vertical RecyclerView with sections.
+ * <p>
+ * Should be placed on top of the RecyclerView along its end edge (e.g. in
+ * {@link SectionHeaderLayout} or any FrameLayout) and attached via
+ * {@link #attachTo(RecyclerView, SectionDataManager)}. Only touches at the thumb track are
+ * handled, the rest of the view area is used to draw the bubble.
+ * <p>
+ * Thumb fraction is mapped to the global adapter position (using {@link SectionHeightEstimator}
+ * if the layout manager provides one), which is mapped to the section via
+ * {@link SectionDataManager#calcSection(int)} binary search, so it takes O(log S) regardless of
+ * the section count. Drag events are coalesced, so RecyclerView is scrolled at most once per
+ * frame.
+ * <p>
+ * Alternatively, an alphabet rail can be displayed instead of the thumb by setting
+ * {@link RailIndexer}. In this case touching a rail label scrolls to the corresponding section.
+ */
+public class SectionFastScroller extends View {
+
+    /**
+     * Interface for providing labels, that are displayed in the bubble while dragging.
+     */
+    public interface SectionLabelProvider {
+
+        /**
+         * Returns the label for the given section, e.g. the first letter of its items.
+         *
+         * @param section Index of the section.
+         * @return Section label or null, if the bubble shouldn't be displayed.
+         */
+        String getSectionLabel(int section);
+
+    }
+
+    /**
+     * Interface for the alphabet rail, which is displayed instead of the thumb.
+     */
+    public interface RailIndexer {
+
+        /**
+         * Returns the number of labels in the rail.
+         *
+         * @return Number of rail labels.
+         */
+        int getRailLabelCount();
+
+        /**
+         * Returns the rail label at the given index.
+         *
+         * @param index Index of the rail label.
+         * @return Rail label.
+         */
+        String getRailLabel(int index);
+
+        /**
+         * Returns the section to scroll to, when the rail label at the given index is touched.
+         *
+         * @param index Index of the rail label.
+         * @return Index of the section or -1, if there is no section for this label.
+         */
+        int getSectionForRailLabel(int index);
+
+    }
+
+    private static final float TRACK_WIDTH_DP = 24;
+    private static final float THUMB_WIDTH_DP = 6;
+    private static final float THUMB_HEIGHT_DP = 48;
+    private static final float BUBBLE_SIZE_DP = 64;
+    private static final float BUBBLE_MARGIN_DP = 16;
+    private static final float LABEL_TEXT_SIZE_SP = 28;
+    private static final float RAIL_TEXT_SIZE_SP = 11;
+
+    private RecyclerView recyclerView;
+    private SectionDataManager sectionDataManager;
+    private SectionLabelProvider labelProvider;
+    private RailIndexer railIndexer;
+
+    private final Paint thumbPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint bubblePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint railPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF thumbRect = new RectF();
+    private final RectF bubbleRect = new RectF();
+
+    private float density;
+    private float trackWidth;
+    private float thumbWidth;
+    private float thumbHeight;
+    private float bubbleSize;
+    private float bubbleMargin;
+
+    private boolean isDragging;
+    private float thumbFraction;
+    private float pendingTouchY;
+    private boolean isScrollPending;
+    private int labelSection = -1;
+    private String label;
+
+    public SectionFastScroller(Context context) {
+        super(context);
+        init();
+    }
+
+    public SectionFastScroller(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    public SectionFastScroller(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public SectionFastScroller(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
+        init();
+    }
+
+    private void init() {
+        density = getResources().getDisplayMetrics().density;
+        float scaledDensity = getResources().getDisplayMetrics().scaledDensity;
+        trackWidth = TRACK_WIDTH_DP * density;
+        thumbWidth = THUMB_WIDTH_DP * density;
+        thumbHeight = THUMB_HEIGHT_DP * density;
+        bubbleSize = BUBBLE_SIZE_DP * density;
+        bubbleMargin = BUBBLE_MARGIN_DP * density;
+        thumbPaint.setColor(Color.GRAY);
+        bubblePaint.setColor(Color.GRAY);
+        labelPaint.setColor(Color.WHITE);
+        labelPaint.setTextSize(LABEL_TEXT_SIZE_SP * scaledDensity);
+        labelPaint.setTextAlign(Paint.Align.CENTER);
+        railPaint.setColor(Color.GRAY);
+        railPaint.setTextSize(RAIL_TEXT_SIZE_SP * scaledDensity);
+        railPaint.setTextAlign(Paint.Align.CENTER);
+    }
+
+    /**
+     * Attaches to the given RecyclerView and SectionDataManager. Adds {@link #onScrollListener} to
+     * the given RecyclerView to move the thumb while scrolling.
+     *
+     * @param recyclerView       RecyclerView to attach to.
+     * @param sectionDataManager SectionDataManager to attach to.
+     */
+    public void attachTo(RecyclerView recyclerView, SectionDataManager sectionDataManager) {
+        this.recyclerView = recyclerView;
+        this.sectionDataManager = sectionDataManager;
+        recyclerView.addOnScrollListener(onScrollListener);
+        invalidate();
+    }
+
+    /**
+     * Returns whether this SectionFastScroller has been attached to RecyclerView and
+     * SectionDataManager.
+     *
+     * @return True if it has been attached, false otherwise.
+     */
+    public boolean isAttached() {
+        return recyclerView != null;
+    }
+
+    /**
+     * Detaches from RecyclerView and SectionDataManager.
+     */
+    public void detach() {
+        if (!isAttached()) {
+            throw new RuntimeException("SectionFastScroller hasn't been attached " +
+                    "to any RecyclerView and SectionDataManager.");
+        }
+        recyclerView.removeOnScrollListener(onScrollListener);
+        removeCallbacks(scrollRunnable);
+        isScrollPending = false;
+        isDragging = false;
+        recyclerView = null;
+        sectionDataManager = null;
+        invalidate();
+    }
+
+    /**
+     * Sets SectionLabelProvider to display section labels in the bubble while dragging.
+     *
+     * @param labelProvider SectionLabelProvider or null to hide the bubble.
+     */
+    public void setSectionLabelProvider(SectionLabelProvider labelProvider) {
+        this.labelProvider = labelProvider;
+        labelSection = -1;
+        label = null;
+    }
+
+    /**
+     * Sets RailIndexer to display the alphabet rail instead of the thumb.
+     *
+     * @param railIndexer RailIndexer or null to display the thumb.
+     */
+    public void setRailIndexer(RailIndexer railIndexer) {
+        this.railIndexer = railIndexer;
+        invalidate();
+    }
+
+    /**
+     * Sets the color of the thumb.
+     *
+     * @param color Color int.
+     */
+    public void setThumbColor(int color) {
+        thumbPaint.setColor(color);
+        invalidate();
+    }
+
+    /**
+     * Sets the background color of the label bubble.
+     *
+     * @param color Color int.
+     */
+    public void setBubbleColor(int color) {
+        bubblePaint.setColor(color);
+        invalidate();
+    }
+
+    /**
+     * Sets the text color of the label bubble.
+     *
+     * @param color Color int.
+     */
+    public void setBubbleTextColor(int color) {
+        labelPaint.setColor(color);
+        invalidate();
+    }
+
+    /**
+     * Sets the text color of the alphabet rail labels.
+     *
+     * @param color Color int.
+     */
+    public void setRailTextColor(int color) {
+        railPaint.setColor(color);
+        invalidate();
+    }
+
+    /* DRAWING */
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (!isAttached() || !isScrollable()) return;
+        if (railIndexer != null) {
+            drawRail(canvas);
+        } else {
+            drawThumb(canvas);
+        }
+        if (isDragging && label != null) {
+            drawBubble(canvas);
+        }
+    }
+
+    private void drawThumb(Canvas canvas) {
+        if (!isDragging) {
+            thumbFraction = calcScrollFraction();
+        }
+        float trackHeight = getHeight() - getPaddingTop() - getPaddingBottom() - thumbHeight;
+        float top = getPaddingTop() + trackHeight * thumbFraction;
+        float right = getWidth() - getPaddingRight() - (trackWidth - thumbWidth) / 2;
+        thumbRect.set(right - thumbWidth, top, right, top + thumbHeight);
+        canvas.drawRoundRect(thumbRect, thumbWidth / 2, thumbWidth / 2, thumbPaint);
+    }
+
+    private void drawRail(Canvas canvas) {
+        int cnt = railIndexer.getRailLabelCount();
+        if (cnt == 0) return;
+        float labelHeight = (float) (getHeight() - getPaddingTop() - getPaddingBottom()) / cnt;
+        float x = getWidth() - getPaddingRight() - trackWidth / 2;
+        float baselineOffset = (labelHeight - railPaint.descent() - railPaint.ascent()) / 2;
+        for (int i = 0; i < cnt; i++) {
+            float y = getPaddingTop() + labelHeight * i + baselineOffset;
+            canvas.drawText(railIndexer.getRailLabel(i), x, y, railPaint);
+        }
+    }
+
+    private void drawBubble(Canvas canvas) {
+        float right = getWidth() - getPaddingRight() - trackWidth - bubbleMargin;
+        float centerY = Math.max(getPaddingTop() + bubbleSize / 2,
+                Math.min(getHeight() - getPaddingBottom() - bubbleSize / 2, pendingTouchY));
+        bubbleRect.set(right - bubbleSize, centerY - bubbleSize / 2, right, centerY + bubbleSize / 2);
+        canvas.drawRoundRect(bubbleRect, bubbleSize / 2, bubbleSize / 2, bubblePaint);
+        float baseline = bubbleRect.centerY() - (labelPaint.descent() + labelPaint.ascent()) / 2;
+        canvas.drawText(label, bubbleRect.centerX(), baseline, labelPaint);
+    }
+
+    /* END DRAWING */
+    /* TOUCH */
+
+    @SuppressLint("ClickableViewAccessibility")
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (!isAttached() || !isScrollable()) return false;
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                if (event.getX() < getWidth() - getPaddingRight() - trackWidth) return false;
+                isDragging = true;
+                getParent().requestDisallowInterceptTouchEvent(true);
+                recyclerView.stopScroll();
+                onDrag(event.getY());
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                if (!isDragging) return false;
+                onDrag(event.getY());
+                return true;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                if (!isDragging) return false;
+                isDragging = false;
+                getParent().requestDisallowInterceptTouchEvent(false);
+                invalidate();
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stores the latest touch position and schedules {@link #scrollRunnable} for the next
+     * animation frame, if it hasn't been scheduled yet, so that several drag events during one
+     * frame result in a single scroll.
+     *
+     * @param y Touch y coordinate.
+     */
+    private void onDrag(float y) {
+        pendingTouchY = y;
+        if (!isScrollPending) {
+            isScrollPending = true;
+            ViewCompat.postOnAnimation(this, scrollRunnable);
+        }
+    }
+
+    /**
+     * Scrolls RecyclerView to the position, that corresponds to the latest touch position.
+     */
+    private Runnable scrollRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isScrollPending = false;
+            if (!isAttached()) return;
+            int totalCnt = recyclerView.getAdapter() != null ? recyclerView.getAdapter().getItemCount() : 0;
+            if (totalCnt == 0) return;
+            int section;
+            int adapterPos;
+            int offset = 0;
+            if (railIndexer != null) {
+                int railCnt = railIndexer.getRailLabelCount();
+                if (railCnt == 0) return;
+                float labelHeight = (float) (getHeight() - getPaddingTop() - getPaddingBottom()) / railCnt;
+                int index = clamp((int) ((pendingTouchY - getPaddingTop()) / labelHeight), 0, railCnt - 1);
+                section = railIndexer.getSectionForRailLabel(index);
+                if (section < 0 || section >= sectionDataManager.getSectionCount()) return;
+                adapterPos = sectionDataManager.getSectionFirstPos(section);
+            } else {
+                float trackHeight = getHeight() - getPaddingTop() - getPaddingBottom() - thumbHeight;
+                float fraction = trackHeight > 0
+                        ? (pendingTouchY - getPaddingTop() - thumbHeight / 2) / trackHeight : 0;
+                thumbFraction = Math.max(0, Math.min(1, fraction));
+                SectionHeightEstimator heightEstimator = getHeightEstimator();
+                if (heightEstimator != null && heightEstimator.hasMeasurements()) {
+                    int scrollRange = heightEstimator.getTotalHeight() - recyclerView.computeVerticalScrollExtent();
+                    int targetOffset = Math.round(thumbFraction * Math.max(0, scrollRange));
+                    adapterPos = heightEstimator.getPositionForOffset(targetOffset);
+                    offset = heightEstimator.getOffsetForPosition(adapterPos) - targetOffset;
+                } else {
+                    adapterPos = clamp(Math.round(thumbFraction * (totalCnt - 1)), 0, totalCnt - 1);
+                }
+                section = sectionDataManager.calcSection(adapterPos);
+            }
+            updateLabel(section);
+            SectionSmoothScroller.scrollToPosition(recyclerView, adapterPos, offset);
+            invalidate();
+        }
+    };
+
+    /* END TOUCH */
+
+    /**
+     * Notifies SectionFastScroller that the RecyclerView was scrolled, so the thumb should be
+     * redrawn.
+     */
+    private RecyclerView.OnScrollListener onScrollListener = new RecyclerView.OnScrollListener() {
+
+        @Override
+        public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+            super.onScrolled(recyclerView, dx, dy);
+            if (!isDragging) {
+                invalidate();
+            }
+        }
+
+    };
+
+    /**
+     * Updates the bubble label. Requests the label from {@link SectionLabelProvider} only when the
+     * section has changed.
+     *
+     * @param section Index of the current section.
+     */
+    private void updateLabel(int section) {
+        if (section == labelSection) return;
+        labelSection = section;
+        label = labelProvider != null && section != -1 ? labelProvider.getSectionLabel(section) : null;
+    }
+
+    /**
+     * Returns SectionHeightEstimator of the attached layout manager, so that the thumb fraction is
+     * mapped to the pixel offset rather than to the adapter position, or null if it isn't supported.
+     *
+     * @return SectionHeightEstimator or null.
+     */
+    private SectionHeightEstimator getHeightEstimator() {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager instanceof SectionLinearLayoutManager) {
+            return ((SectionLinearLayoutManager) layoutManager).getHeightEstimator();
+        } else if (layoutManager instanceof SectionedLayoutManager) {
+            return ((SectionedLayoutManager) layoutManager).getHeightEstimator();
+        }
+        return null;
+    }
+
+    private boolean isScrollable() {
+        return recyclerView.computeVerticalScrollRange() > recyclerView.computeVerticalScrollExtent();
+    }
+
+    private float calcScrollFraction() {
+        int scrollRange = recyclerView.computeVerticalScrollRange() - recyclerView.computeVerticalScrollExtent();
+        if (scrollRange <= 0) return 0;
+        return Math.max(0, Math.min(1, (float) recyclerView.computeVerticalScrollOffset() / scrollRange));
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Stable reference to a section registered with a user key via {@link SectionEntry#setKey(Object)}
+ * or {@link SectionManager#setSectionKey(int, Object)}.
+ * <p>
+ * Handle refers to the section by its type, which doesn't change when other sections are inserted,
+ * removed or moved, so it stays valid across structural changes without any bookkeeping on the
+ * caller side. Current index of the section is resolved in O(1) via the position index, which
+ * keeps indexes of sections by type up to date. Replacing the section keeps its handle, as does
+ * {@link SectionManager#setSections(SectionListSnapshot)} for keys present in the new snapshot.
+ * <p>
+ * When the section is removed, handle is detached: {@link #getSection()} returns -1 and other
+ * methods throw or return -1 accordingly. Should be used on the main thread.
+ */
+public final class SectionHandle {
+
+    private final Object key;
+    private final SectionDataManager sectionDataManager;
+    short sectionType;
+
+    SectionHandle(@NonNull Object key, @NonNull SectionDataManager sectionDataManager, short sectionType) {
+        this.key = key;
+        this.sectionDataManager = sectionDataManager;
+        this.sectionType = sectionType;
+    }
+
+    /**
+     * Returns the key, that the section has been registered with.
+     *
+     * @return Section key.
+     */
+    @NonNull
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * Returns whether the section is still in the RecyclerView.
+     *
+     * @return True if the section hasn't been removed, false otherwise.
+     */
+    public boolean isAttached() {
+        return sectionType != 0;
+    }
+
+    /**
+     * Returns the current index of the section.
+     *
+     * @return Index of the section or -1, if it has been removed.
+     */
+    public int getSection() {
+        return isAttached() ? sectionDataManager.indexOfSectionType(sectionType) : -1;
+    }
+
+    /**
+     * Returns the successor of the BaseSectionAdapter which represents the section.
+     *
+     * @return Successor of the BaseSectionAdapter which represents the section.
+     */
+    public <T extends BaseSectionAdapter> T getAdapter() {
+        checkIsAttached();
+        return sectionDataManager.getSectionAdapter(getSection());
+    }
+
+    /**
+     * Calculates the adapter position of the item at the specified position in the section.
+     *
+     * @param pos Item position in section.
+     * @return Global adapter position or -1, if the section has been removed or the position is
+     * out of bounds.
+     */
+    public int calcAdapterPos(int pos) {
+        int section = getSection();
+        return section != -1 ? sectionDataManager.calcAdapterPos(section, pos) : -1;
+    }
+
+    private void checkIsAttached() {
+        if (!isAttached()) {
+            throw new RuntimeException("Section with key " + key + " has been removed.");
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ package com.cruxlab.sectionedrecyclerview.lib;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.os.Build;
+import androidx.core.view.ViewCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import android.util.AttributeSet;
@@ -45,11 +46,17 @@ import android.widget.RelativeLayout;
  * It is changed in two cases: while scrolling or after data set changes. First case is handled in
  * RecyclerView's {@link #onScrollListener}, second one in headerViewManager's callback. In
  * both cases HeaderManager updates header view state if necessary.
+ * <p>
+ * Header view is pinned to the edge, where the first visible item is laid out, so that vertical,
+ * horizontal and reversed layouts are supported. The offset is calculated along the layout
+ * orientation axis, see {@link #calcTranslation(int, int)}.
  */
 public class SectionHeaderLayout extends RelativeLayout {
 
     private RecyclerView recyclerView;
     private SectionDataManager.HeaderManager headerManager;
+    private int orientation = LinearLayoutManager.VERTICAL;
+    private boolean isReversed;
 
     public SectionHeaderLayout(Context context) {
         super(context);
@@ -71,7 +78,8 @@ public class SectionHeaderLayout extends RelativeLayout {
     /**
      * Attaches to the given RecyclerView and SectionDataManager. Adds {@link #onScrollListener} to
      * the given RecyclerView to manage header view while scrolling. RecyclerView's layout manager
-     * should be a successor of LinearLayoutManager.
+     * should be a successor of LinearLayoutManager. Both orientations and reversed layout are
+     * supported.
      *
      * @param recyclerView       RecyclerView to attach to.
      * @param sectionDataManager SectionDataManager to attach to.
@@ -102,6 +110,10 @@ public class SectionHeaderLayout extends RelativeLayout {
                     "to any RecyclerView and SectionDataManager.");
         }
         recyclerView.removeOnScrollListener(onScrollListener);
+        if (isTranslationPending) {
+            getViewTreeObserver().removeOnPreDrawListener(translateHeaderListener);
+            isTranslationPending = false;
+        }
         headerManager.removeSelf();
         headerViewManager.removeHeaderView();
         recyclerView = null;
@@ -126,13 +138,14 @@ public class SectionHeaderLayout extends RelativeLayout {
 
         @Override
         public void addHeaderView(final View headerView, final int nextHeaderPos) {
+            updateLayoutDirection();
             LayoutParams newParams = new LayoutParams(headerView.getLayoutParams());
-            newParams.addRule(RelativeLayout.ALIGN_TOP);
+            newParams.addRule(getHeaderAlignRule());
             headerView.setLayoutParams(newParams);
             runJustBeforeBeingDrawn(headerView, new Runnable() {
                 @Override
                 public void run() {
-                    headerView.setTranslationY(calcTranslation(headerView.getHeight(), nextHeaderPos));
+                    translate(headerView, nextHeaderPos);
                     headerView.requestLayout();
                 }
             });
@@ -166,17 +179,16 @@ public class SectionHeaderLayout extends RelativeLayout {
             }
         }
 
+        /* Called on every scroll, so it reuses {@link #translateHeaderListener} instead of
+        allocating a new one. */
         @Override
-        public void translateHeaderView(final int nextHeaderPos) {
+        public void translateHeaderView(int nextHeaderPos) {
             if (getChildCount() > 1) {
-                final View headerView = getChildAt(getChildCount() - 1);
-                runJustBeforeBeingDrawn(headerView, new Runnable() {
-                    @Override
-                    public void run() {
-                        headerView.setTranslationY(calcTranslation(headerView.getHeight(), nextHeaderPos));
-                        headerView.requestLayout();
-                    }
-                });
+                pendingNextHeaderPos = nextHeaderPos;
+                if (!isTranslationPending) {
+                    isTranslationPending = true;
+                    getViewTreeObserver().addOnPreDrawListener(translateHeaderListener);
+                }
             }
         }
 
@@ -187,6 +199,34 @@ public class SectionHeaderLayout extends RelativeLayout {
 
     };
 
+    private int pendingNextHeaderPos;
+    private boolean isTranslationPending;
+
+    /**
+     * Translates the current header view just before it is drawn, using the latest next header
+     * position passed to {@link HeaderViewManager#translateHeaderView(int)}. Created once and
+     * reused for every scroll event. Layout direction is read again, so the header view follows
+     * changes of the LayoutManager, its orientation or layout direction made after it was added.
+     */
+    private ViewTreeObserver.OnPreDrawListener translateHeaderListener = new ViewTreeObserver.OnPreDrawListener() {
+
+        @Override
+        public boolean onPreDraw() {
+            getViewTreeObserver().removeOnPreDrawListener(this);
+            isTranslationPending = false;
+            if (recyclerView != null && getChildCount() > 1) {
+                View headerView = getChildAt(getChildCount() - 1);
+                if (updateLayoutDirection()) {
+                    realign(headerView);
+                }
+                translate(headerView, pendingNextHeaderPos);
+                headerView.requestLayout();
+            }
+            return true;
+        }
+
+    };
+
     /**
      * Notifies {@link SectionDataManager.HeaderManager} that the RecyclerView was scrolled, so the
      * header view could have been changed.
@@ -216,19 +256,94 @@ public class SectionHeaderLayout extends RelativeLayout {
     }
 
     /**
-     * Calculates yTranslation for the current header view based on its height and next header
-     * position.
+     * Reads orientation and layout direction from the RecyclerView's LinearLayoutManager. Horizontal
+     * layout is also reversed, when RecyclerView has RTL layout direction.
      *
-     * @param headerHeight  Height of the current header view in px.
+     * @return True if the orientation or layout direction has changed, false otherwise.
+     */
+    private boolean updateLayoutDirection() {
+        int prevOrientation = orientation;
+        boolean wasReversed = isReversed;
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        orientation = layoutManager.getOrientation();
+        boolean isReverseLayout = layoutManager.getReverseLayout();
+        if (orientation == LinearLayoutManager.HORIZONTAL
+                && ViewCompat.getLayoutDirection(recyclerView) == ViewCompat.LAYOUT_DIRECTION_RTL) {
+            isReverseLayout = !isReverseLayout;
+        }
+        isReversed = isReverseLayout;
+        return orientation != prevOrientation || isReversed != wasReversed;
+    }
+
+    /**
+     * Aligns the given header view to the edge according to the current layout direction and
+     * resets its translation along the other axis.
+     *
+     * @param headerView Current header view.
+     */
+    private void realign(View headerView) {
+        LayoutParams params = (LayoutParams) headerView.getLayoutParams();
+        // Rules are cleared via addRule(verb, 0), because removeRule(int) requires API 17.
+        params.addRule(RelativeLayout.ALIGN_PARENT_TOP, 0);
+        params.addRule(RelativeLayout.ALIGN_PARENT_BOTTOM, 0);
+        params.addRule(RelativeLayout.ALIGN_PARENT_LEFT, 0);
+        params.addRule(RelativeLayout.ALIGN_PARENT_RIGHT, 0);
+        params.addRule(getHeaderAlignRule());
+        headerView.setTranslationX(0);
+        headerView.setTranslationY(0);
+    }
+
+    /**
+     * Returns RelativeLayout rule to align the header view to the edge, where the first visible
+     * item is laid out.
+     *
+     * @return RelativeLayout verb.
+     */
+    private int getHeaderAlignRule() {
+        if (orientation == LinearLayoutManager.VERTICAL) {
+            return isReversed ? RelativeLayout.ALIGN_PARENT_BOTTOM : RelativeLayout.ALIGN_PARENT_TOP;
+        } else {
+            return isReversed ? RelativeLayout.ALIGN_PARENT_RIGHT : RelativeLayout.ALIGN_PARENT_LEFT;
+        }
+    }
+
+    /**
+     * Sets translation along the layout orientation axis for the given header view.
+     *
+     * @param headerView    Current header view.
+     * @param nextHeaderPos Adapter position of the next header view.
+     */
+    private void translate(View headerView, int nextHeaderPos) {
+        if (orientation == LinearLayoutManager.VERTICAL) {
+            headerView.setTranslationY(calcTranslation(headerView.getHeight(), nextHeaderPos));
+        } else {
+            headerView.setTranslationX(calcTranslation(headerView.getWidth(), nextHeaderPos));
+        }
+    }
+
+    /**
+     * Calculates translation for the current header view based on its size and next header
+     * position. The next header view pushes the current one out towards the pinned edge.
+     *
+     * @param headerSize    Size of the current header view along the layout orientation in px.
      * @param nextHeaderPos Adapter position of the next header view.
-     * @return Calculated yTranslation for the header view.
+     * @return Calculated translation for the header view.
      */
-    private int calcTranslation(int headerHeight, int nextHeaderPos) {
+    private int calcTranslation(int headerSize, int nextHeaderPos) {
         View nextHeaderView = recyclerView.getLayoutManager().findViewByPosition(nextHeaderPos);
         if (nextHeaderView != null) {
-            int topOffset = nextHeaderView.getTop();
-            int offset = headerHeight - topOffset;
-            if (offset > 0) return -offset;
+            int edgeOffset;
+            if (orientation == LinearLayoutManager.VERTICAL) {
+                edgeOffset = isReversed
+                        ? recyclerView.getHeight() - nextHeaderView.getBottom()
+                        : nextHeaderView.getTop();
+            } else {
+                edgeOffset = isReversed
+                        ? recyclerView.getWidth() - nextHeaderView.getRight()
+                        : nextHeaderView.getLeft();
+            }
+            int offset = headerSize - edgeOffset;
+            if (offset > 0) return isReversed ? offset : -offset;
         }
         return 0;
     }
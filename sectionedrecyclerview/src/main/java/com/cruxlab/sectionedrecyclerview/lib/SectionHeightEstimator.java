@@ -0,0 +1,468 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Estimates the heights of sections by learning measured heights of their headers and item rows.
+ * <p>
+ * Heights are stored in arrays indexed by section type, which is unique for each section and
+ * doesn't change when its index changes, so learned values survive insertions and removals of
+ * other sections. Header height is the last measured one. Item row heights are learned separately
+ * for each item view type of the section ({@link BaseSectionAdapter#getItemViewType(int)}) as
+ * a running average over the last {@link #MAX_SAMPLE_COUNT} measurements, so sections, that mix
+ * e.g. short rows and big cards, are estimated by the number of items of each view type. Item
+ * view types, that haven't been measured yet, use the average of the measured ones in the
+ * section, or the height of the first measured row.
+ * <p>
+ * Items of each view type are counted when the section is estimated for the first time and
+ * recounted in O(n) only when its item count changes or its items are updated, see
+ * {@link #invalidateItemTypes(int, int)}. Within a section items are assumed to have the average
+ * height of its rows. Learned heights of removed sections are dropped on the next rebuild.
+ * <p>
+ * Estimated section heights are kept in a Fenwick tree, so both position to pixel and pixel to
+ * position lookups take O(log S), as well as updating the height of a section after a new
+ * measurement. The tree is rebuilt in O(S) only after data set changes, see {@link #invalidate()}.
+ */
+public class SectionHeightEstimator {
+
+    /**
+     * Number of measurements used to calculate the average item row height.
+     */
+    private static final int MAX_SAMPLE_COUNT = 32;
+
+    private final SectionDataManager sectionDataManager;
+    private SectionedLayoutManager.SpanCountLookup spanCountLookup;
+
+    private int[] typeToHeaderHeight = new int[0];
+    private RowHeights[] typeToRowHeights = new RowHeights[0];
+    private int[] typeToRebuildCnt = new int[0];
+    private int rebuildCnt;
+    private int defaultRowHeight;
+
+    private int[] sectionToHeight = new int[0];
+    private int[] tree = new int[1];
+    private int sectionCnt;
+    private boolean isDirty = true;
+
+    public SectionHeightEstimator(@NonNull SectionDataManager sectionDataManager) {
+        this.sectionDataManager = sectionDataManager;
+    }
+
+    /**
+     * Sets SpanCountLookup to determine the number of items in a row for each section. If it is
+     * null, all sections are considered to be linear lists.
+     *
+     * @param spanCountLookup SpanCountLookup to use or null.
+     */
+    public void setSpanCountLookup(SectionedLayoutManager.SpanCountLookup spanCountLookup) {
+        this.spanCountLookup = spanCountLookup;
+        invalidate();
+    }
+
+    /**
+     * Returns whether at least one row has been measured, so the estimations make sense.
+     *
+     * @return True if there are measurements, false otherwise.
+     */
+    public boolean hasMeasurements() {
+        return defaultRowHeight > 0;
+    }
+
+    /**
+     * Notifies that the data set has changed, so the estimated section heights should be
+     * recalculated on the next lookup. Learned heights are kept.
+     */
+    public void invalidate() {
+        isDirty = true;
+    }
+
+    /**
+     * Notifies that the items in the given range may have changed their view types, so the items
+     * of the sections, that contain them, are counted again on the next lookup.
+     *
+     * @param positionStart Adapter position of the first updated item.
+     * @param itemCount     Number of updated items.
+     */
+    public void invalidateItemTypes(int positionStart, int itemCount) {
+        int totalCnt = sectionDataManager.getTotalItemCount();
+        int end = Math.min(positionStart + itemCount, totalCnt);
+        if (positionStart < 0 || positionStart >= end) return;
+        int lastSection = sectionDataManager.calcSection(end - 1);
+        for (int section = sectionDataManager.calcSection(positionStart); section <= lastSection; section++) {
+            short sectionType = sectionDataManager.getSectionType(section);
+            if (sectionType < typeToRowHeights.length && typeToRowHeights[sectionType] != null) {
+                typeToRowHeights[sectionType].countedItemCnt = -1;
+            }
+        }
+        isDirty = true;
+    }
+
+    /**
+     * Notifies that the whole data set has changed, so the estimated section heights are
+     * recalculated and the items of each view type are counted again on the next lookup.
+     */
+    public void invalidateAll() {
+        for (RowHeights rowHeights : typeToRowHeights) {
+            if (rowHeights != null) {
+                rowHeights.countedItemCnt = -1;
+            }
+        }
+        isDirty = true;
+    }
+
+    /**
+     * Forgets all learned heights, e.g. after the width of RecyclerView has changed.
+     */
+    public void clear() {
+        Arrays.fill(typeToHeaderHeight, 0);
+        for (RowHeights rowHeights : typeToRowHeights) {
+            if (rowHeights != null) {
+                rowHeights.clear();
+            }
+        }
+        defaultRowHeight = 0;
+        isDirty = true;
+    }
+
+    /**
+     * Learns the measured height of the row, that starts with the given adapter position. For a
+     * linear section a row is a single item. Updates the estimated height of the corresponding
+     * section in O(log S), if it has changed.
+     *
+     * @param rowStart Adapter position of the first item in the row.
+     * @param height   Measured row height in px, including decorations and margins.
+     */
+    public void recordRowHeight(int rowStart, int height) {
+        if (height <= 0 || rowStart < 0 || rowStart >= sectionDataManager.getTotalItemCount()) return;
+        int section = sectionDataManager.calcSection(rowStart);
+        short sectionType = sectionDataManager.getSectionType(section);
+        ensureTypeCapacity(sectionType);
+        if (defaultRowHeight == 0) {
+            defaultRowHeight = height;
+            isDirty = true;
+        }
+        if (isHeaderPos(section, rowStart)) {
+            if (typeToHeaderHeight[sectionType] == height) return;
+            typeToHeaderHeight[sectionType] = height;
+        } else {
+            int pos = rowStart - sectionDataManager.getSectionFirstPos(section)
+                    - (sectionDataManager.isSectionHeaderVisible(section) ? 1 : 0);
+            getRowHeights(sectionType).record(sectionDataManager.getSectionItemViewType(section, pos), height);
+        }
+        if (isDirty || section >= sectionCnt) return;
+        int newHeight = calcSectionHeight(section);
+        int delta = newHeight - sectionToHeight[section];
+        if (delta != 0) {
+            sectionToHeight[section] = newHeight;
+            for (int i = section + 1; i <= sectionCnt; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated height of all sections.
+     *
+     * @return Total height in px.
+     */
+    public int getTotalHeight() {
+        rebuildIfDirty();
+        return prefixSum(sectionCnt);
+    }
+
+    /**
+     * Returns the estimated distance between the top of the first section and the top of the
+     * given section.
+     *
+     * @param section Index of the section.
+     * @return Section offset in px.
+     */
+    public int getSectionOffset(int section) {
+        rebuildIfDirty();
+        return prefixSum(Math.max(0, Math.min(section, sectionCnt)));
+    }
+
+    /**
+     * Returns the estimated distance between the top of the first section and the top of the row,
+     * that contains the given adapter position.
+     *
+     * @param adapterPos Global adapter position.
+     * @return Offset in px.
+     */
+    public int getOffsetForPosition(int adapterPos) {
+        rebuildIfDirty();
+        if (sectionCnt == 0 || adapterPos < 0) return 0;
+        if (adapterPos >= sectionDataManager.getTotalItemCount()) return prefixSum(sectionCnt);
+        int section = sectionDataManager.calcSection(adapterPos);
+        short sectionType = sectionDataManager.getSectionType(section);
+        int itemsStart = sectionDataManager.getSectionFirstPos(section);
+        int offset = prefixSum(section);
+        if (sectionDataManager.isSectionHeaderVisible(section)) {
+            if (adapterPos == itemsStart) return offset;
+            offset += getHeaderHeight(sectionType);
+            itemsStart++;
+        }
+        return offset + (adapterPos - itemsStart) / getSpanCount(section) * getRowHeight(section);
+    }
+
+    /**
+     * Returns the adapter position of the first item in the row, that is estimated to be displayed
+     * at the given distance from the top of the first section.
+     *
+     * @param offset Offset in px.
+     * @return Global adapter position or -1, if there are no items.
+     */
+    public int getPositionForOffset(int offset) {
+        rebuildIfDirty();
+        int totalCnt = sectionDataManager.getTotalItemCount();
+        if (sectionCnt == 0 || totalCnt == 0) return -1;
+        // Binary lifting over the Fenwick tree finds the last section starting at or before the offset.
+        int section = 0;
+        int remaining = Math.max(0, offset);
+        for (int step = Integer.highestOneBit(sectionCnt); step > 0; step >>= 1) {
+            int next = section + step;
+            if (next <= sectionCnt && tree[next] <= remaining) {
+                section = next;
+                remaining -= tree[next];
+            }
+        }
+        if (section >= sectionCnt) return totalCnt - 1;
+        while (section < sectionCnt - 1 && sectionDataManager.getSectionRealItemCount(section) == 0) {
+            section++;
+        }
+        short sectionType = sectionDataManager.getSectionType(section);
+        int firstPos = sectionDataManager.getSectionFirstPos(section);
+        int sectionEnd = firstPos + sectionDataManager.getSectionRealItemCount(section);
+        if (sectionEnd == firstPos) return Math.min(firstPos, totalCnt - 1);
+        int itemsStart = firstPos;
+        if (sectionDataManager.isSectionHeaderVisible(section)) {
+            int headerHeight = getHeaderHeight(sectionType);
+            if (remaining < headerHeight || sectionEnd == firstPos + 1) return firstPos;
+            remaining -= headerHeight;
+            itemsStart++;
+        }
+        int spanCnt = getSpanCount(section);
+        int rowHeight = getRowHeight(section);
+        int row = rowHeight > 0 ? remaining / rowHeight : 0;
+        int lastRowStart = itemsStart + (sectionEnd - 1 - itemsStart) / spanCnt * spanCnt;
+        return Math.min(itemsStart + row * spanCnt, lastRowStart);
+    }
+
+    private void rebuildIfDirty() {
+        if (!isDirty) return;
+        sectionCnt = sectionDataManager.getSectionCount();
+        if (sectionToHeight.length < sectionCnt) {
+            sectionToHeight = new int[sectionCnt];
+        }
+        if (tree.length < sectionCnt + 1) {
+            tree = new int[sectionCnt + 1];
+        }
+        tree[0] = 0;
+        rebuildCnt++;
+        for (int s = 0; s < sectionCnt; s++) {
+            short sectionType = sectionDataManager.getSectionType(s);
+            ensureTypeCapacity(sectionType);
+            typeToRebuildCnt[sectionType] = rebuildCnt;
+            sectionToHeight[s] = calcSectionHeight(s);
+            tree[s + 1] = sectionToHeight[s];
+        }
+        // Section types aren't reused, so heights of the types missing now won't be needed again.
+        for (int t = 0; t < typeToRebuildCnt.length; t++) {
+            if (typeToRebuildCnt[t] != rebuildCnt) {
+                typeToHeaderHeight[t] = 0;
+                typeToRowHeights[t] = null;
+            }
+        }
+        // Linear time construction: each node adds itself to its parent.
+        for (int i = 1; i <= sectionCnt; i++) {
+            int parent = i + (i & -i);
+            if (parent <= sectionCnt) {
+                tree[parent] += tree[i];
+            }
+        }
+        isDirty = false;
+    }
+
+    private int prefixSum(int section) {
+        int sum = 0;
+        for (int i = section; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private int calcSectionHeight(int section) {
+        short sectionType = sectionDataManager.getSectionType(section);
+        int itemCnt = sectionDataManager.getSectionRealItemCount(section);
+        int height = 0;
+        if (sectionDataManager.isSectionHeaderVisible(section)) {
+            height += getHeaderHeight(sectionType);
+            itemCnt--;
+        }
+        if (itemCnt == 0) return height;
+        int spanCnt = getSpanCount(section);
+        int rowCnt = (itemCnt + spanCnt - 1) / spanCnt;
+        long itemsHeight = getCountedRowHeights(section, itemCnt).getTotalHeight(defaultRowHeight);
+        return height + (int) (rowCnt * itemsHeight / itemCnt);
+    }
+
+    private int getHeaderHeight(short sectionType) {
+        if (sectionType < typeToHeaderHeight.length && typeToHeaderHeight[sectionType] > 0) {
+            return typeToHeaderHeight[sectionType];
+        }
+        return defaultRowHeight;
+    }
+
+    /**
+     * Returns the average row height of the given section weighted by the number of items of each
+     * view type.
+     */
+    private int getRowHeight(int section) {
+        int itemCnt = sectionDataManager.getSectionRealItemCount(section)
+                - (sectionDataManager.isSectionHeaderVisible(section) ? 1 : 0);
+        if (itemCnt <= 0) return defaultRowHeight;
+        return (int) (getCountedRowHeights(section, itemCnt).getTotalHeight(defaultRowHeight) / itemCnt);
+    }
+
+    private RowHeights getRowHeights(short sectionType) {
+        ensureTypeCapacity(sectionType);
+        RowHeights rowHeights = typeToRowHeights[sectionType];
+        if (rowHeights == null) {
+            rowHeights = new RowHeights();
+            typeToRowHeights[sectionType] = rowHeights;
+        }
+        return rowHeights;
+    }
+
+    /**
+     * Returns RowHeights of the given section, recounting its items of each view type, if the
+     * item count has changed since the last count.
+     */
+    private RowHeights getCountedRowHeights(int section, int itemCnt) {
+        RowHeights rowHeights = getRowHeights(sectionDataManager.getSectionType(section));
+        if (rowHeights.countedItemCnt != itemCnt) {
+            rowHeights.resetItemCounts();
+            for (int pos = 0; pos < itemCnt; pos++) {
+                rowHeights.itemCnts[rowHeights.indexOf(sectionDataManager.getSectionItemViewType(section, pos))]++;
+            }
+            rowHeights.countedItemCnt = itemCnt;
+        }
+        return rowHeights;
+    }
+
+    private int getSpanCount(int section) {
+        return spanCountLookup != null ? Math.max(1, spanCountLookup.getSpanCount(section)) : 1;
+    }
+
+    private boolean isHeaderPos(int section, int pos) {
+        return sectionDataManager.isSectionHeaderVisible(section)
+                && sectionDataManager.getSectionFirstPos(section) == pos;
+    }
+
+    private void ensureTypeCapacity(short sectionType) {
+        if (sectionType < typeToHeaderHeight.length) return;
+        int capacity = Math.max(sectionType + 1, typeToHeaderHeight.length * 2);
+        typeToHeaderHeight = Arrays.copyOf(typeToHeaderHeight, capacity);
+        typeToRowHeights = Arrays.copyOf(typeToRowHeights, capacity);
+        typeToRebuildCnt = Arrays.copyOf(typeToRebuildCnt, capacity);
+    }
+
+    /**
+     * Learned row heights and item counts of a single section for each of its item view types.
+     */
+    private static class RowHeights {
+
+        short[] itemTypes = new short[1];
+        int[] heightSums = new int[1];
+        int[] sampleCnts = new int[1];
+        int[] itemCnts = new int[1];
+        int size;
+        int countedItemCnt = -1;
+
+        int indexOf(short itemType) {
+            for (int i = 0; i < size; i++) {
+                if (itemTypes[i] == itemType) return i;
+            }
+            if (size == itemTypes.length) {
+                int capacity = size * 2;
+                itemTypes = Arrays.copyOf(itemTypes, capacity);
+                heightSums = Arrays.copyOf(heightSums, capacity);
+                sampleCnts = Arrays.copyOf(sampleCnts, capacity);
+                itemCnts = Arrays.copyOf(itemCnts, capacity);
+            }
+            itemTypes[size] = itemType;
+            heightSums[size] = 0;
+            sampleCnts[size] = 0;
+            itemCnts[size] = 0;
+            return size++;
+        }
+
+        void record(short itemType, int height) {
+            int i = indexOf(itemType);
+            if (sampleCnts[i] == MAX_SAMPLE_COUNT) {
+                heightSums[i] -= heightSums[i] / sampleCnts[i];
+            } else {
+                sampleCnts[i]++;
+            }
+            heightSums[i] += height;
+        }
+
+        /**
+         * Returns the estimated height of all counted items as if each of them took a whole row.
+         * Item view types, that haven't been measured, use the average of the measured ones or
+         * <code>defaultHeight</code>, if there are none.
+         */
+        long getTotalHeight(int defaultHeight) {
+            long measuredHeight = 0;
+            int measuredCnt = 0;
+            int unmeasuredCnt = 0;
+            for (int i = 0; i < size; i++) {
+                if (sampleCnts[i] > 0) {
+                    measuredHeight += (long) itemCnts[i] * (heightSums[i] / sampleCnts[i]);
+                    measuredCnt += itemCnts[i];
+                } else {
+                    unmeasuredCnt += itemCnts[i];
+                }
+            }
+            long unmeasuredHeight = measuredCnt > 0 ? measuredHeight / measuredCnt : defaultHeight;
+            return measuredHeight + unmeasuredCnt * unmeasuredHeight;
+        }
+
+        void resetItemCounts() {
+            Arrays.fill(itemCnts, 0, size, 0);
+        }
+
+        void clear() {
+            Arrays.fill(heightSums, 0, size, 0);
+            Arrays.fill(sampleCnts, 0, size, 0);
+        }
+
+    }
+
+}
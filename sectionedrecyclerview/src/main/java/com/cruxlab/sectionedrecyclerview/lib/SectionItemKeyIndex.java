@@ -0,0 +1,213 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reverse index from item keys reported by {@link BaseSectionAdapter#getItemKey(int)} to the
+ * sections and positions of the items.
+ * <p>
+ * Each section has its own {@link LongIntMap} from item keys to positions in the section, and one
+ * more LongIntMap maps item keys to section types, which don't change when sections are inserted,
+ * removed or moved. So the section of an item is found in O(1) and its adapter position in
+ * O(1) + O(log S) without scanning the adapters.
+ * <p>
+ * The index is updated incrementally from {@link SectionItemManager} notifications: changed items
+ * are rekeyed, items inserted or removed at the end of the section are added or removed one by
+ * one. Other changes shift positions, so the section is marked dirty and its keys are collected
+ * again in O(n) on the next lookup.
+ */
+class SectionItemKeyIndex {
+
+    private final SparseArray<SectionKeys> typeToKeys = new SparseArray<>();
+    private final LongIntMap keyToType = new LongIntMap();
+    private final List<SectionKeys> dirtySections = new ArrayList<>();
+
+    void addSection(short sectionType, SectionAdapterWrapper adapterWrapper) {
+        SectionKeys keys = new SectionKeys(sectionType, adapterWrapper);
+        typeToKeys.put(sectionType, keys);
+        markDirty(keys);
+    }
+
+    void removeSection(short sectionType) {
+        SectionKeys keys = typeToKeys.get(sectionType);
+        if (keys == null) return;
+        typeToKeys.remove(sectionType);
+        for (int p = 0; p < keys.size; p++) {
+            unpublishKey(keys, p);
+        }
+        // Dirty sections are skipped on flush after their adapter is reset.
+        keys.adapterWrapper = null;
+    }
+
+    void invalidate(short sectionType) {
+        SectionKeys keys = typeToKeys.get(sectionType);
+        if (keys != null) {
+            markDirty(keys);
+        }
+    }
+
+    void onInserted(short sectionType, int pos, int cnt) {
+        SectionKeys keys = typeToKeys.get(sectionType);
+        if (keys == null || keys.isDirty) return;
+        if (pos != keys.size) {
+            markDirty(keys);
+            return;
+        }
+        keys.ensureCapacity(pos + cnt);
+        for (int p = pos; p < pos + cnt; p++) {
+            publishKey(keys, p, keys.adapterWrapper.getItemKey(p));
+        }
+        keys.size = pos + cnt;
+    }
+
+    void onRemoved(short sectionType, int pos, int cnt) {
+        SectionKeys keys = typeToKeys.get(sectionType);
+        if (keys == null || keys.isDirty) return;
+        if (pos + cnt != keys.size) {
+            markDirty(keys);
+            return;
+        }
+        for (int p = pos; p < keys.size; p++) {
+            unpublishKey(keys, p);
+        }
+        keys.size = pos;
+    }
+
+    void onChanged(short sectionType, int pos, int cnt) {
+        SectionKeys keys = typeToKeys.get(sectionType);
+        if (keys == null || keys.isDirty) return;
+        for (int p = pos; p < pos + cnt; p++) {
+            long key = keys.adapterWrapper.getItemKey(p);
+            if (key == keys.posToKey[p]) continue;
+            unpublishKey(keys, p);
+            publishKey(keys, p, key);
+        }
+    }
+
+    /**
+     * Returns the type of the section, that contains the item with the given key.
+     *
+     * @param itemKey Item key.
+     * @return Section type or 0, if there is no such item.
+     */
+    short findSectionType(long itemKey) {
+        flush();
+        return (short) keyToType.get(itemKey, 0);
+    }
+
+    /**
+     * Returns the position of the item with the given key in the section with the given type.
+     *
+     * @param sectionType Type of the section, that contains the item.
+     * @param itemKey     Item key.
+     * @return Item position in section or -1, if there is no such item.
+     */
+    int findPosInSection(short sectionType, long itemKey) {
+        flush();
+        SectionKeys keys = typeToKeys.get(sectionType);
+        return keys != null ? keys.keyToPos.get(itemKey, -1) : -1;
+    }
+
+    private void flush() {
+        for (int i = 0, n = dirtySections.size(); i < n; i++) {
+            SectionKeys keys = dirtySections.get(i);
+            keys.isDirty = false;
+            if (keys.adapterWrapper != null) {
+                rebuild(keys);
+            }
+        }
+        dirtySections.clear();
+    }
+
+    private void rebuild(SectionKeys keys) {
+        for (int p = 0; p < keys.size; p++) {
+            unpublishKey(keys, p);
+        }
+        keys.keyToPos.clear();
+        int cnt = keys.adapterWrapper.getItemCount();
+        keys.ensureCapacity(cnt);
+        for (int p = 0; p < cnt; p++) {
+            publishKey(keys, p, keys.adapterWrapper.getItemKey(p));
+        }
+        keys.size = cnt;
+    }
+
+    private void markDirty(SectionKeys keys) {
+        if (keys.isDirty) return;
+        keys.isDirty = true;
+        dirtySections.add(keys);
+    }
+
+    private void publishKey(SectionKeys keys, int pos, long key) {
+        keys.posToKey[pos] = key;
+        if (key == BaseSectionAdapter.NO_ITEM_KEY) return;
+        keys.keyToPos.put(key, pos);
+        keyToType.put(key, keys.sectionType);
+    }
+
+    private void unpublishKey(SectionKeys keys, int pos) {
+        long key = keys.posToKey[pos];
+        if (key == BaseSectionAdapter.NO_ITEM_KEY) return;
+        // The key may have been published again at another position, e.g. when items are swapped.
+        if (keys.keyToPos.get(key, -1) == pos) {
+            keys.keyToPos.remove(key);
+            if (keyToType.get(key, 0) == keys.sectionType) {
+                keyToType.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Item keys of a single section.
+     */
+    private static class SectionKeys {
+
+        final short sectionType;
+        final LongIntMap keyToPos = new LongIntMap();
+        SectionAdapterWrapper adapterWrapper;
+        long[] posToKey = new long[0];
+        int size;
+        boolean isDirty;
+
+        SectionKeys(short sectionType, SectionAdapterWrapper adapterWrapper) {
+            this.sectionType = sectionType;
+            this.adapterWrapper = adapterWrapper;
+        }
+
+        void ensureCapacity(int capacity) {
+            if (posToKey.length >= capacity) return;
+            posToKey = Arrays.copyOf(posToKey, Math.max(capacity, posToKey.length * 2));
+        }
+
+    }
+
+}
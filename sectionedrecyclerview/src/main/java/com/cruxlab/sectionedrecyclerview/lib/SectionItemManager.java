@@ -31,14 +31,15 @@ interface SectionItemManager {
 
     void notifyInserted(int section, int pos);
     void notifyRemoved(int section, int pos);
-    void notifyChanged(int section, int pos);
+    void notifyChanged(int section, int pos, Object payload);
     void notifyRangeInserted(int section, int startPos, int cnt);
     void notifyRangeRemoved(int section, int startPos, int cnt);
-    void notifyRangeChanged(int section, int startPos, int cnt);
+    void notifyRangeChanged(int section, int startPos, int cnt, Object payload);
     void notifyDataSetChanged(int section);
     void notifyMoved(int section, int fromPos, int toPos);
-    void notifyHeaderChanged(int section);
+    void notifyHeaderChanged(int section, Object payload);
     void notifyHeaderVisibilityChanged(int section, boolean visible);
     void notifyHeaderPinnedStateChanged(int section, boolean pinned);
+    int getSection(short sectionType);
 
 }
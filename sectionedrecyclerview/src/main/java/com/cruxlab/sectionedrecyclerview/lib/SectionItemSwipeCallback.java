@@ -46,6 +46,13 @@ import androidx.recyclerview.widget.ItemTouchHelper;
  * You can also customize how your View's respond to user interactions and disable swipe
  * for all views {@link #isSwipeEnabled()}.
  * <p>
+ * Items can also be reordered by dragging. Return drag direction flags from
+ * {@link #getDragDirFlags(RecyclerView, BaseSectionAdapter.ItemViewHolder)} and move your data in
+ * {@link #onMove(BaseSectionAdapter.ItemViewHolder, int, int)} for moves within the section and in
+ * {@link #onMoveToSection(BaseSectionAdapter.ItemViewHolder, int, int, int)} for moves to another
+ * section. SectionDataManager notifies RecyclerView itself, so SectionAdapter#notify events
+ * shouldn't be called for these moves.
+ * <p>
  * Similar to {@link ItemTouchHelper.Callback}.
  */
 public abstract class SectionItemSwipeCallback {
@@ -173,4 +180,55 @@ public abstract class SectionItemSwipeCallback {
         return true;
     }
 
+    /**
+     * Returns set of direction flags for dragging each item view combining
+     * ({@link ItemTouchHelper.Callback#UP}, {@link ItemTouchHelper.Callback#DOWN},
+     * {@link ItemTouchHelper.Callback#LEFT} and {@link ItemTouchHelper.Callback#RIGHT})
+     * or 0 if dragging is not allowed.
+     *
+     * @param recyclerView The RecyclerView to which the ItemTouchHelper is attached to.
+     * @param viewHolder   The ViewHolder for which the drag direction is queried.
+     *
+     * @return A binary OR of drag direction flags. Default value is 0.
+     */
+    public int getDragDirFlags(RecyclerView recyclerView,
+                               BaseSectionAdapter.ItemViewHolder viewHolder) {
+        return 0;
+    }
+
+    /**
+     * Called when a ViewHolder is dragged by the user over another item in the same section. At
+     * this point, you should move the item in your data set.
+     * <p>
+     * Similar to {@link ItemTouchHelper.Callback#onMove(RecyclerView, RecyclerView.ViewHolder,
+     * RecyclerView.ViewHolder)}.
+     *
+     * @param viewHolder The ViewHolder which is being dragged by the user.
+     * @param fromPos    Current position of the item in the section.
+     * @param toPos      New position of the item in the section.
+     *
+     * @return True if the item has been moved, false otherwise. Default value is <code>false</code>.
+     */
+    public boolean onMove(BaseSectionAdapter.ItemViewHolder viewHolder, int fromPos, int toPos) {
+        return false;
+    }
+
+    /**
+     * Called when a ViewHolder is dragged by the user out of its section. At this point, you should
+     * remove the item from the data set of this section and insert it to the data set of the section
+     * at <code>toSection</code>, so it is displayed at <code>toPos</code> in it.
+     *
+     * @param viewHolder The ViewHolder which is being dragged by the user.
+     * @param fromPos    Current position of the item in this section.
+     * @param toSection  Index of the section the item is moved to.
+     * @param toPos      New position of the item in that section.
+     *
+     * @return True if the item has been transferred, false otherwise. Default value is
+     *         <code>false</code>.
+     */
+    public boolean onMoveToSection(BaseSectionAdapter.ItemViewHolder viewHolder, int fromPos,
+                                   int toSection, int toPos) {
+        return false;
+    }
+
 }
@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * LinearLayoutManager, that computes vertical scroll extents from the heights of sections instead
+ * of assuming that all items have the same height.
+ * <p>
+ * Item heights are learned by {@link SectionHeightEstimator} as items are measured, so the
+ * scrollbar and {@link SectionFastScroller} stay consistent with mixed sections (e.g. tall
+ * headers, short rows and big cards). Horizontal and reversed layouts use the default
+ * LinearLayoutManager implementation.
+ */
+public class SectionLinearLayoutManager extends LinearLayoutManager {
+
+    private final SectionHeightEstimator heightEstimator;
+
+    public SectionLinearLayoutManager(Context context, @NonNull SectionDataManager sectionDataManager) {
+        super(context);
+        this.heightEstimator = new SectionHeightEstimator(sectionDataManager);
+    }
+
+    public SectionLinearLayoutManager(Context context, @NonNull SectionDataManager sectionDataManager,
+                                      int orientation, boolean reverseLayout) {
+        super(context, orientation, reverseLayout);
+        this.heightEstimator = new SectionHeightEstimator(sectionDataManager);
+    }
+
+    /**
+     * Returns SectionHeightEstimator, that learns item heights during layout. It can be used to
+     * map positions to pixels and vice versa, e.g. for fast scrolling.
+     *
+     * @return SectionHeightEstimator of this layout manager.
+     */
+    public SectionHeightEstimator getHeightEstimator() {
+        return heightEstimator;
+    }
+
+    @Override
+    public void measureChildWithMargins(View child, int widthUsed, int heightUsed) {
+        super.measureChildWithMargins(child, widthUsed, heightUsed);
+        if (getOrientation() != VERTICAL) return;
+        RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+        if (lp.isItemRemoved()) return;
+        heightEstimator.recordRowHeight(getPosition(child),
+                getDecoratedMeasuredHeight(child) + lp.topMargin + lp.bottomMargin);
+    }
+
+    @Override
+    public int computeVerticalScrollRange(RecyclerView.State state) {
+        if (!isEstimationUsed()) return super.computeVerticalScrollRange(state);
+        return heightEstimator.getTotalHeight();
+    }
+
+    @Override
+    public int computeVerticalScrollOffset(RecyclerView.State state) {
+        if (!isEstimationUsed()) return super.computeVerticalScrollOffset(state);
+        int firstPos = findFirstVisibleItemPosition();
+        if (firstPos == RecyclerView.NO_POSITION) return 0;
+        View firstView = findViewByPosition(firstPos);
+        if (firstView == null) return super.computeVerticalScrollOffset(state);
+        RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) firstView.getLayoutParams();
+        int firstTop = getDecoratedTop(firstView) - lp.topMargin;
+        return Math.max(0, heightEstimator.getOffsetForPosition(firstPos) + getPaddingTop() - firstTop);
+    }
+
+    @Override
+    public int computeVerticalScrollExtent(RecyclerView.State state) {
+        if (!isEstimationUsed()) return super.computeVerticalScrollExtent(state);
+        return getHeight() - getPaddingTop() - getPaddingBottom();
+    }
+
+    @Override
+    public void onItemsChanged(RecyclerView recyclerView) {
+        super.onItemsChanged(recyclerView);
+        heightEstimator.invalidateAll();
+    }
+
+    @Override
+    public void onItemsAdded(RecyclerView recyclerView, int positionStart, int itemCount) {
+        super.onItemsAdded(recyclerView, positionStart, itemCount);
+        heightEstimator.invalidate();
+    }
+
+    @Override
+    public void onItemsRemoved(RecyclerView recyclerView, int positionStart, int itemCount) {
+        super.onItemsRemoved(recyclerView, positionStart, itemCount);
+        heightEstimator.invalidate();
+    }
+
+    @Override
+    public void onItemsMoved(RecyclerView recyclerView, int from, int to, int itemCount) {
+        super.onItemsMoved(recyclerView, from, to, itemCount);
+        heightEstimator.invalidate();
+    }
+
+    @Override
+    public void onItemsUpdated(RecyclerView recyclerView, int positionStart, int itemCount) {
+        super.onItemsUpdated(recyclerView, positionStart, itemCount);
+        heightEstimator.invalidateItemTypes(positionStart, itemCount);
+    }
+
+    @Override
+    public void onAdapterChanged(RecyclerView.Adapter oldAdapter, RecyclerView.Adapter newAdapter) {
+        super.onAdapterChanged(oldAdapter, newAdapter);
+        heightEstimator.invalidate();
+    }
+
+    private boolean isEstimationUsed() {
+        return getOrientation() == VERTICAL && !getReverseLayout() && heightEstimator.hasMeasurements();
+    }
+
+}
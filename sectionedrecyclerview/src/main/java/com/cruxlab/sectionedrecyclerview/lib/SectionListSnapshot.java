@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable list of sections, that can be assembled on a background thread and installed to
+ * {@link SectionDataManager} on the main thread via
+ * {@link SectionManager#setSections(SectionListSnapshot)}.
+ * <p>
+ * {@link Builder#build()} wraps adapters, validates header types and precomputes partial sums of
+ * item counts, so installing the snapshot only registers section types and copies the arrays.
+ * Adapters shouldn't change their item counts or header visibility after the snapshot is built
+ * until it is installed. A snapshot can be installed only once.
+ */
+public final class SectionListSnapshot {
+
+    final SectionAdapterWrapper[] adapterWrappers;
+    final SectionItemSwipeCallback[] swipeCallbacks;
+    final int[] posSum;
+    final boolean[] headers;
+    final Object[] keys;
+    boolean isInstalled;
+
+    private SectionListSnapshot(List<SectionEntry> entries) {
+        int n = entries.size();
+        adapterWrappers = new SectionAdapterWrapper[n];
+        swipeCallbacks = new SectionItemSwipeCallback[n];
+        posSum = new int[n];
+        headers = new boolean[n];
+        keys = new Object[n];
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            SectionEntry entry = entries.get(i);
+            SectionAdapterWrapper adapterWrapper = entry.createAdapterWrapper();
+            adapterWrappers[i] = adapterWrapper;
+            swipeCallbacks[i] = entry.swipeCallback;
+            headers[i] = adapterWrapper.isHeaderVisible();
+            keys[i] = entry.key;
+            sum += adapterWrapper.getItemCount() + adapterWrapper.getHeaderVisibilityInt();
+            posSum[i] = sum;
+        }
+    }
+
+    /**
+     * Returns the number of sections in the snapshot.
+     *
+     * @return Number of sections.
+     */
+    public int getSectionCount() {
+        return adapterWrappers.length;
+    }
+
+    /**
+     * Returns the total number of items in all sections including headers.
+     *
+     * @return Total number of items.
+     */
+    public int getTotalItemCount() {
+        return posSum.length > 0 ? posSum[posSum.length - 1] : 0;
+    }
+
+    /**
+     * Builder of {@link SectionListSnapshot}. Can be used on any thread.
+     */
+    public static final class Builder {
+
+        private final List<SectionEntry> entries = new ArrayList<>();
+
+        public Builder addSection(@NonNull SimpleSectionAdapter simpleSectionAdapter) {
+            return addSection(new SectionEntry(simpleSectionAdapter));
+        }
+
+        public Builder addSection(@NonNull SimpleSectionAdapter simpleSectionAdapter, SectionItemSwipeCallback swipeCallback) {
+            return addSection(new SectionEntry(simpleSectionAdapter, swipeCallback));
+        }
+
+        public Builder addSection(@NonNull SectionAdapter sectionAdapter, short headerType) {
+            return addSection(new SectionEntry(sectionAdapter, headerType));
+        }
+
+        public Builder addSection(@NonNull SectionAdapter sectionAdapter, SectionItemSwipeCallback swipeCallback, short headerType) {
+            return addSection(new SectionEntry(sectionAdapter, swipeCallback, headerType));
+        }
+
+        public Builder addSection(@NonNull SectionEntry entry) {
+            if (entry == null) {
+                throw new IllegalArgumentException("SectionEntry cannot be null.");
+            }
+            entries.add(entry);
+            return this;
+        }
+
+        /**
+         * Creates SectionListSnapshot with the added sections. Wraps adapters and calculates
+         * partial sums of their item counts in O(S).
+         *
+         * @return New SectionListSnapshot.
+         */
+        public SectionListSnapshot build() {
+            return new SectionListSnapshot(entries);
+        }
+
+    }
+
+}
@@ -27,6 +27,8 @@ package com.cruxlab.sectionedrecyclerview.lib;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.util.List;
+
 /**
  * Interface for interaction with RecyclerView and managing its sections.
  * <p>
@@ -36,7 +38,8 @@ import androidx.annotation.Nullable;
  * the section.
  * <p>
  * Most of the methods require an index of the section to interact with. It can be received from
- * adapter by calling {@link BaseSectionAdapter#getSection()}.
+ * adapter by calling {@link BaseSectionAdapter#getSection()} or from {@link SectionHandle} of the
+ * section registered with a key.
  */
 public interface SectionManager {
 
@@ -141,6 +144,29 @@ public interface SectionManager {
     void insertSection(int section, @NonNull SectionAdapter sectionAdapter,
                        SectionItemSwipeCallback swipeCallback, short headerType);
 
+    /**
+     * Adds the sections described by the specified SectionEntries to the end of the RecyclerView.
+     * <p>
+     * Unlike calling {@link #addSection} for each section, partial sums of item counts are built
+     * in a single pass and only one range inserted notification is sent, so large lists are built
+     * in linear time.
+     *
+     * @param entries List of SectionEntries to represent the added sections.
+     */
+    void addSections(@NonNull List<SectionEntry> entries);
+
+    /**
+     * Inserts the sections described by the specified SectionEntries to the specified position in
+     * the RecyclerView keeping their order.
+     * <p>
+     * Unlike calling {@link #insertSection} for each section, following sections are shifted once
+     * and only one range inserted notification is sent.
+     *
+     * @param section Index at which the first section is to be inserted.
+     * @param entries List of SectionEntries to represent the inserted sections.
+     */
+    void insertSections(int section, @NonNull List<SectionEntry> entries);
+
     /**
      * Replaces the section at the specified position in the RecyclerView with the section
      * represented by the specified SimpleSectionAdapter.
@@ -198,6 +224,49 @@ public interface SectionManager {
      */
     void removeSection(int section);
 
+    /**
+     * Removes <code>count</code> sections starting with the specified position in the RecyclerView.
+     * <p>
+     * Unlike calling {@link #removeSection(int)} for each section, positions are recalculated once
+     * and only one range removed notification is sent.
+     *
+     * @param section Index of the first section to remove.
+     * @param count   Number of sections to remove.
+     */
+    void removeSections(int section, int count);
+
+    /**
+     * Removes all sections from the RecyclerView sending one range removed notification.
+     */
+    void clearSections();
+
+    /**
+     * Replaces all sections with the sections from the given SectionListSnapshot, which can be
+     * built on a background thread. Must be called on the main thread.
+     * <p>
+     * RecyclerView receives a single notification: a range inserted one if there were no items
+     * and a data set changed one otherwise, so enable stable IDs to keep ViewHolders of the items,
+     * that remain in the list.
+     * <p>
+     * SectionHandles of the keys present in the snapshot are kept and refer to the new sections,
+     * handles of the other keys are detached.
+     *
+     * @param snapshot SectionListSnapshot to install.
+     */
+    void setSections(@NonNull SectionListSnapshot snapshot);
+
+    /**
+     * Moves the section from one position in the RecyclerView to another keeping its ViewHolders.
+     * <p>
+     * Sections with up to {@link SectionDataManager#MAX_MOVED_ITEM_COUNT} items are moved with
+     * item moved notifications, so RecyclerView animates the move without rebinding. Bigger
+     * sections are removed and inserted at the new position.
+     *
+     * @param fromSection Current index of the section.
+     * @param toSection   New index of the section.
+     */
+    void moveSection(int fromSection, int toSection);
+
     /**
      * Updates the section at the specified position in the RecyclerView.
      * <p>
@@ -238,6 +307,33 @@ public interface SectionManager {
 
     <T extends BaseSectionAdapter> T getSectionAdapter(int section);
 
+    /**
+     * Registers the section at the specified position in the RecyclerView with the specified key,
+     * replacing its previous key, if any.
+     *
+     * @param section Index of the section to register.
+     * @param key     Key, that isn't used by other sections.
+     * @return SectionHandle of the section.
+     */
+    SectionHandle setSectionKey(int section, @NonNull Object key);
+
+    /**
+     * Returns SectionHandle of the section registered with the specified key in O(1).
+     *
+     * @param key Section key.
+     * @return SectionHandle of the section or null, if there is no section with the given key.
+     */
+    @Nullable
+    SectionHandle getSectionHandle(@NonNull Object key);
+
+    /**
+     * Returns the index of the section registered with the specified key in O(1).
+     *
+     * @param key Section key.
+     * @return Index of the section or -1, if there is no section with the given key.
+     */
+    int indexOfSection(@NonNull Object key);
+
     /**
      * Returns the SectionItemSwipeCallback which represents the specifies section in the
      * RecyclerView or null.
@@ -248,4 +344,32 @@ public interface SectionManager {
     @Nullable
     SectionItemSwipeCallback getSwipeCallback(int section);
 
+    /**
+     * Scrolls the RecyclerView to the specified section, so that its first item (header, if it is
+     * visible) is displayed <code>offset</code> pixels from the start edge.
+     * <p>
+     * Smooth scroll jumps close to the target first, when it is far from the visible range, and
+     * animates only the remaining distance.
+     *
+     * @param section Index of the section to scroll to.
+     * @param offset  Distance in px between the start edge of the RecyclerView and the section.
+     * @param smooth  True to animate scrolling, false to scroll immediately.
+     */
+    void scrollToSection(int section, int offset, boolean smooth);
+
+    /**
+     * Scrolls the RecyclerView to the item at the specified position in the specified section,
+     * so that it is displayed <code>offset</code> pixels below the pinned header of this section
+     * (or from the start edge, if the header isn't pinned).
+     * <p>
+     * Smooth scroll jumps close to the target first, when it is far from the visible range, and
+     * animates only the remaining distance.
+     *
+     * @param section Index of the section to scroll to.
+     * @param pos     Item position in section.
+     * @param offset  Distance in px between the pinned header or start edge and the item.
+     * @param smooth  True to animate scrolling, false to scroll immediately.
+     */
+    void scrollToSectionItem(int section, int pos, int offset, boolean smooth);
+
 }
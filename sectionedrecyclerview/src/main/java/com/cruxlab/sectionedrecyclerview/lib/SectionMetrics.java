@@ -0,0 +1,321 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects hot path metrics of {@link SectionDataManager}: ViewHolder creates and binds and the
+ * time spent in them per section type, notify calls by kind, partial sum update cost and header
+ * view events.
+ * <p>
+ * Counters are lock-free and preallocated, so recording doesn't allocate. Metrics are collected
+ * only after setting an instance via {@link SectionDataManager#setMetrics(SectionMetrics)}.
+ * If the library is built with <code>-PsectionMetrics=false</code>, {@link #ENABLED} is false and
+ * all recording calls are removed by the compiler.
+ * <p>
+ * Section types greater than the maximum one passed to the constructor are accumulated in the
+ * slot of {@link SectionDataManager}'s unused section type 0.
+ */
+public final class SectionMetrics {
+
+    /**
+     * Compile-time switch of metrics recording.
+     */
+    public static final boolean ENABLED = BuildConfig.SECTION_METRICS;
+
+    public static final int NOTIFY_ITEM_INSERTED = 0;
+    public static final int NOTIFY_ITEM_REMOVED = 1;
+    public static final int NOTIFY_ITEM_CHANGED = 2;
+    public static final int NOTIFY_ITEM_RANGE_INSERTED = 3;
+    public static final int NOTIFY_ITEM_RANGE_REMOVED = 4;
+    public static final int NOTIFY_ITEM_RANGE_CHANGED = 5;
+    public static final int NOTIFY_ITEM_MOVED = 6;
+    public static final int NOTIFY_DATA_SET_CHANGED = 7;
+    public static final int NOTIFY_HEADER_CHANGED = 8;
+    public static final int NOTIFY_HEADER_VISIBILITY_CHANGED = 9;
+    public static final int NOTIFY_HEADER_PINNED_STATE_CHANGED = 10;
+    public static final int NOTIFY_SECTION_INSERTED = 11;
+    public static final int NOTIFY_SECTION_REPLACED = 12;
+    public static final int NOTIFY_SECTION_REMOVED = 13;
+    public static final int NOTIFY_SECTION_UPDATED = 14;
+    public static final int NOTIFY_SECTION_MOVED = 15;
+    public static final int NOTIFY_KIND_COUNT = 16;
+
+    public static final int HEADER_ADD = 0;
+    public static final int HEADER_SWAP = 1;
+    public static final int HEADER_REMOVE = 2;
+    public static final int HEADER_TRANSLATE = 3;
+    public static final int HEADER_EVENT_COUNT = 4;
+
+    private static final int DEFAULT_MAX_SECTION_TYPE = 1023;
+
+    private static final int POS_SUM_UPDATES = 0;
+    private static final int POS_SUM_UPDATED_SECTIONS = 1;
+    private static final int POS_SUM_UPDATE_NANOS = 2;
+
+    private final int maxSectionType;
+    private final AtomicLongArray typeToCreates;
+    private final AtomicLongArray typeToCreateNanos;
+    private final AtomicLongArray typeToBinds;
+    private final AtomicLongArray typeToBindNanos;
+    private final AtomicLongArray notifies = new AtomicLongArray(NOTIFY_KIND_COUNT);
+    private final AtomicLongArray headerEvents = new AtomicLongArray(HEADER_EVENT_COUNT);
+    private final AtomicLongArray posSumUpdates = new AtomicLongArray(3);
+
+    public SectionMetrics() {
+        this(DEFAULT_MAX_SECTION_TYPE);
+    }
+
+    /**
+     * Creates metrics with per section type counters for section types up to the given one.
+     *
+     * @param maxSectionType Maximum section type to have own counters, up to {@link Short#MAX_VALUE}.
+     */
+    public SectionMetrics(int maxSectionType) {
+        if (maxSectionType < 1 || maxSectionType > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Max section type should be in [1, " + Short.MAX_VALUE + "].");
+        }
+        this.maxSectionType = maxSectionType;
+        typeToCreates = new AtomicLongArray(maxSectionType + 1);
+        typeToCreateNanos = new AtomicLongArray(maxSectionType + 1);
+        typeToBinds = new AtomicLongArray(maxSectionType + 1);
+        typeToBindNanos = new AtomicLongArray(maxSectionType + 1);
+    }
+
+    /* RECORDING */
+
+    void recordCreate(short sectionType, long nanos) {
+        int idx = getTypeIndex(sectionType);
+        typeToCreates.incrementAndGet(idx);
+        typeToCreateNanos.addAndGet(idx, nanos);
+    }
+
+    void recordBind(short sectionType, long nanos) {
+        int idx = getTypeIndex(sectionType);
+        typeToBinds.incrementAndGet(idx);
+        typeToBindNanos.addAndGet(idx, nanos);
+    }
+
+    void recordNotify(int kind) {
+        notifies.incrementAndGet(kind);
+    }
+
+    void recordHeaderEvent(int event) {
+        headerEvents.incrementAndGet(event);
+    }
+
+    void recordPosSumUpdate(int sectionCnt, long nanos) {
+        posSumUpdates.incrementAndGet(POS_SUM_UPDATES);
+        posSumUpdates.addAndGet(POS_SUM_UPDATED_SECTIONS, sectionCnt);
+        posSumUpdates.addAndGet(POS_SUM_UPDATE_NANOS, nanos);
+    }
+
+    /* END RECORDING */
+
+    /**
+     * Returns a consistent enough copy of all counters. Each counter is read atomically, but the
+     * counters can be updated while copying.
+     *
+     * @return Snapshot of the counters.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void reset() {
+        for (int i = 0; i <= maxSectionType; i++) {
+            typeToCreates.set(i, 0);
+            typeToCreateNanos.set(i, 0);
+            typeToBinds.set(i, 0);
+            typeToBindNanos.set(i, 0);
+        }
+        for (int i = 0; i < NOTIFY_KIND_COUNT; i++) {
+            notifies.set(i, 0);
+        }
+        for (int i = 0; i < HEADER_EVENT_COUNT; i++) {
+            headerEvents.set(i, 0);
+        }
+        for (int i = 0; i < posSumUpdates.length(); i++) {
+            posSumUpdates.set(i, 0);
+        }
+    }
+
+    private int getTypeIndex(short sectionType) {
+        return sectionType > 0 && sectionType <= maxSectionType ? sectionType : 0;
+    }
+
+    /**
+     * Immutable copy of {@link SectionMetrics} counters.
+     */
+    public static final class Snapshot {
+
+        private final SectionMetrics metrics;
+        private final long[] typeToCreates;
+        private final long[] typeToCreateNanos;
+        private final long[] typeToBinds;
+        private final long[] typeToBindNanos;
+        private final long[] notifies;
+        private final long[] headerEvents;
+        private final long[] posSumUpdates;
+
+        private Snapshot(SectionMetrics metrics) {
+            this.metrics = metrics;
+            typeToCreates = copy(metrics.typeToCreates);
+            typeToCreateNanos = copy(metrics.typeToCreateNanos);
+            typeToBinds = copy(metrics.typeToBinds);
+            typeToBindNanos = copy(metrics.typeToBindNanos);
+            notifies = copy(metrics.notifies);
+            headerEvents = copy(metrics.headerEvents);
+            posSumUpdates = copy(metrics.posSumUpdates);
+        }
+
+        /**
+         * Returns the number of created ViewHolders (items and headers) of the given section type.
+         *
+         * @param sectionType Section type, see {@link BaseSectionAdapter#getSectionType()}.
+         * @return Number of creates.
+         */
+        public long getCreateCount(short sectionType) {
+            return typeToCreates[metrics.getTypeIndex(sectionType)];
+        }
+
+        /**
+         * Returns the total time spent in <code>onCreateViewHolder</code> for the given section type.
+         *
+         * @param sectionType Section type, see {@link BaseSectionAdapter#getSectionType()}.
+         * @return Time in nanoseconds.
+         */
+        public long getCreateNanos(short sectionType) {
+            return typeToCreateNanos[metrics.getTypeIndex(sectionType)];
+        }
+
+        /**
+         * Returns the number of bound ViewHolders (items and headers) of the given section type.
+         *
+         * @param sectionType Section type, see {@link BaseSectionAdapter#getSectionType()}.
+         * @return Number of binds.
+         */
+        public long getBindCount(short sectionType) {
+            return typeToBinds[metrics.getTypeIndex(sectionType)];
+        }
+
+        /**
+         * Returns the total time spent in <code>onBindViewHolder</code> for the given section type.
+         *
+         * @param sectionType Section type, see {@link BaseSectionAdapter#getSectionType()}.
+         * @return Time in nanoseconds.
+         */
+        public long getBindNanos(short sectionType) {
+            return typeToBindNanos[metrics.getTypeIndex(sectionType)];
+        }
+
+        /**
+         * Returns the total number of created ViewHolders in all sections.
+         *
+         * @return Number of creates.
+         */
+        public long getTotalCreateCount() {
+            return sum(typeToCreates);
+        }
+
+        /**
+         * Returns the total number of bound ViewHolders in all sections.
+         *
+         * @return Number of binds.
+         */
+        public long getTotalBindCount() {
+            return sum(typeToBinds);
+        }
+
+        /**
+         * Returns the number of notify calls of the given kind, e.g. {@link #NOTIFY_ITEM_INSERTED}.
+         *
+         * @param kind Notify kind in [0, {@link #NOTIFY_KIND_COUNT}).
+         * @return Number of calls.
+         */
+        public long getNotifyCount(int kind) {
+            return notifies[kind];
+        }
+
+        /**
+         * Returns the number of header view events of the given kind, e.g. {@link #HEADER_SWAP}.
+         *
+         * @param event Header event in [0, {@link #HEADER_EVENT_COUNT}).
+         * @return Number of events.
+         */
+        public long getHeaderEventCount(int event) {
+            return headerEvents[event];
+        }
+
+        /**
+         * Returns the number of partial sum array updates.
+         *
+         * @return Number of updates.
+         */
+        public long getPosSumUpdateCount() {
+            return posSumUpdates[POS_SUM_UPDATES];
+        }
+
+        /**
+         * Returns the total number of sections, which partial sums have been updated.
+         *
+         * @return Number of updated sections.
+         */
+        public long getPosSumUpdatedSectionCount() {
+            return posSumUpdates[POS_SUM_UPDATED_SECTIONS];
+        }
+
+        /**
+         * Returns the total time spent in partial sum array updates.
+         *
+         * @return Time in nanoseconds.
+         */
+        public long getPosSumUpdateNanos() {
+            return posSumUpdates[POS_SUM_UPDATE_NANOS];
+        }
+
+        private static long[] copy(AtomicLongArray array) {
+            long[] copy = new long[array.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = array.get(i);
+            }
+            return copy;
+        }
+
+        private static long sum(long[] array) {
+            long sum = 0;
+            for (long value : array) {
+                sum += value;
+            }
+            return sum;
+        }
+
+    }
+
+}
@@ -0,0 +1,403 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe queue of changes to sections, that can be submitted from any thread and are applied
+ * to {@link SectionManager} on the main thread.
+ * <p>
+ * Mutations are stored in a lock-free {@link ConcurrentLinkedQueue}, so producers never block
+ * each other or the main thread. The queue is drained once per frame via {@link Choreographer}
+ * and the mutations pending at the start of the frame are applied as one batch in the order of
+ * submission. Mutations submitted while the batch is applied are left for the next frame, so fast
+ * producers can't keep the main thread in a single frame. Consecutive
+ * section additions and insertions at adjacent indexes are coalesced into a single
+ * {@link SectionManager#addSections(List)} or {@link SectionManager#insertSections(int, List)}
+ * call and repeated updates of the same section are applied once.
+ * <p>
+ * Item changes can be submitted as {@link Mutation}s calling BaseSectionAdapter#notify events,
+ * which are applied on the main thread in the same batch. Note, that indexes are resolved when a
+ * mutation is applied, not when it is submitted.
+ * <p>
+ * If a mutation throws, the exception is propagated from the frame callback and the mutation is
+ * dropped, but the mutations submitted after it are kept and applied in the next frame.
+ */
+public class SectionMutationQueue {
+
+    /**
+     * Change applied to SectionManager on the main thread.
+     */
+    public interface Mutation {
+
+        /**
+         * Applies the change. Called on the main thread.
+         *
+         * @param sectionManager SectionManager to apply the change to.
+         */
+        void apply(SectionManager sectionManager);
+
+    }
+
+    /**
+     * Interface definition for a callback to be invoked when more mutations than the threshold
+     * are applied in one frame, so producers submit them faster than the list can display them.
+     */
+    public interface BackPressureListener {
+
+        /**
+         * Called on the main thread after the batch has been applied.
+         *
+         * @param batchSize  Number of mutations applied in this frame.
+         * @param pendingCnt Number of mutations left for the next frame.
+         */
+        void onBackPressure(int batchSize, int pendingCnt);
+
+    }
+
+    private final SectionManager sectionManager;
+    private final ConcurrentLinkedQueue<Mutation> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCnt = new AtomicInteger();
+    private final AtomicInteger maxPendingCnt = new AtomicInteger();
+    private final AtomicBoolean isScheduled = new AtomicBoolean();
+    private final AtomicReference<Mutation> carriedOver = new AtomicReference<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private BackPressureListener backPressureListener;
+    private int backPressureThreshold = Integer.MAX_VALUE;
+    private volatile long appliedCnt;
+    private volatile long batchCnt;
+    private volatile long backPressureCnt;
+
+    public SectionMutationQueue(@NonNull SectionManager sectionManager) {
+        this.sectionManager = sectionManager;
+    }
+
+    /**
+     * Sets BackPressureListener invoked when more than <code>threshold</code> mutations are
+     * applied in one frame. Should be called on the main thread.
+     *
+     * @param threshold            Maximum number of mutations per frame before back-pressure.
+     * @param backPressureListener BackPressureListener to set or null.
+     */
+    public void setBackPressureListener(int threshold, BackPressureListener backPressureListener) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Back-pressure threshold should be positive.");
+        }
+        this.backPressureThreshold = threshold;
+        this.backPressureListener = backPressureListener;
+    }
+
+    /**
+     * Submits the addition of the section described by the given SectionEntry.
+     *
+     * @param entry SectionEntry to represent the added section.
+     */
+    public void addSection(@NonNull SectionEntry entry) {
+        post(new InsertSection(-1, entry));
+    }
+
+    /**
+     * Submits the insertion of the section described by the given SectionEntry.
+     *
+     * @param section Index at which the section is to be inserted.
+     * @param entry   SectionEntry to represent the inserted section.
+     */
+    public void insertSection(int section, @NonNull SectionEntry entry) {
+        post(new InsertSection(section, entry));
+    }
+
+    /**
+     * Submits the removal of the section.
+     *
+     * @param section Index of the section to remove.
+     */
+    public void removeSection(int section) {
+        post(new RemoveSection(section));
+    }
+
+    /**
+     * Submits the update of the section.
+     *
+     * @param section Index of the section to update.
+     */
+    public void updateSection(int section) {
+        post(new UpdateSection(section));
+    }
+
+    /**
+     * Submits the given mutation. Can be called from any thread.
+     *
+     * @param mutation Mutation to apply on the main thread.
+     */
+    public void post(@NonNull Mutation mutation) {
+        queue.offer(mutation);
+        int cnt = pendingCnt.incrementAndGet();
+        int max;
+        while (cnt > (max = maxPendingCnt.get()) && !maxPendingCnt.compareAndSet(max, cnt)) {
+            // Retry until the maximum is updated by this or another producer.
+        }
+        schedule();
+    }
+
+    /**
+     * Removes all pending mutations without applying them.
+     */
+    public void clear() {
+        if (carriedOver.getAndSet(null) != null) {
+            pendingCnt.decrementAndGet();
+        }
+        while (queue.poll() != null) {
+            pendingCnt.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of submitted mutations, that haven't been applied yet.
+     *
+     * @return Number of pending mutations.
+     */
+    public int getPendingCount() {
+        return pendingCnt.get();
+    }
+
+    /**
+     * Returns the maximum number of pending mutations observed since creation.
+     *
+     * @return Maximum number of pending mutations.
+     */
+    public int getMaxPendingCount() {
+        return maxPendingCnt.get();
+    }
+
+    /**
+     * Returns the total number of applied mutations.
+     *
+     * @return Number of applied mutations.
+     */
+    public long getAppliedCount() {
+        return appliedCnt;
+    }
+
+    /**
+     * Returns the number of frames, in which mutations have been applied.
+     *
+     * @return Number of applied batches.
+     */
+    public long getBatchCount() {
+        return batchCnt;
+    }
+
+    /**
+     * Returns the number of frames, in which more mutations than the back-pressure threshold
+     * have been applied.
+     *
+     * @return Number of back-pressure events.
+     */
+    public long getBackPressureCount() {
+        return backPressureCnt;
+    }
+
+    private final Runnable scheduleFrame = new Runnable() {
+        @Override
+        public void run() {
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    };
+
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            // Reset before draining, so mutations submitted meanwhile schedule the next frame.
+            isScheduled.set(false);
+            try {
+                drain();
+            } finally {
+                // Mutations submitted during the batch or left after a failed one are applied in
+                // the next frame.
+                if (carriedOver.get() != null || !queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    };
+
+    private void schedule() {
+        if (isScheduled.compareAndSet(false, true)) {
+            mainHandler.post(scheduleFrame);
+        }
+    }
+
+    private Mutation poll() {
+        Mutation mutation = carriedOver.getAndSet(null);
+        return mutation != null ? mutation : queue.poll();
+    }
+
+    /**
+     * Applies the mutations pending at the start of the frame coalescing consecutive section
+     * insertions and updates.
+     * <p>
+     * A mutation is polled before the coalesced insertions preceding it are flushed, so if the
+     * flush throws, the polled mutation is carried over to the next frame instead of being lost.
+     */
+    private void drain() {
+        boolean isTraced = SectionTrace.isEnabled();
+        if (isTraced) {
+            SectionTrace.beginSection(SectionTrace.APPLY_MUTATIONS);
+        }
+        List<SectionEntry> entries = new ArrayList<>();
+        int insertSection = -1;
+        int lastUpdatedSection = -1;
+        int batchSize = 0;
+        Mutation mutation = null;
+        int limit = pendingCnt.get();
+        try {
+            while (batchSize < limit && (mutation = poll()) != null) {
+                pendingCnt.decrementAndGet();
+                batchSize++;
+                if (mutation instanceof InsertSection) {
+                    InsertSection insert = (InsertSection) mutation;
+                    int section = insert.section;
+                    boolean isAdjacent = section == -1 ? insertSection == -1
+                            : insertSection != -1 && section == insertSection + entries.size();
+                    if (!entries.isEmpty() && !isAdjacent) {
+                        flushInsertions(insertSection, entries);
+                    }
+                    if (entries.isEmpty()) {
+                        insertSection = section;
+                    }
+                    entries.add(insert.entry);
+                    mutation = null;
+                    lastUpdatedSection = -1;
+                    continue;
+                }
+                flushInsertions(insertSection, entries);
+                Mutation current = mutation;
+                mutation = null;
+                if (current instanceof UpdateSection) {
+                    int section = ((UpdateSection) current).section;
+                    if (section == lastUpdatedSection) continue;
+                    lastUpdatedSection = section;
+                } else {
+                    lastUpdatedSection = -1;
+                }
+                current.apply(sectionManager);
+            }
+            flushInsertions(insertSection, entries);
+        } finally {
+            if (mutation != null) {
+                carriedOver.set(mutation);
+                pendingCnt.incrementAndGet();
+            }
+            if (isTraced) {
+                SectionTrace.endSection();
+            }
+        }
+        if (batchSize == 0) return;
+        appliedCnt += batchSize;
+        batchCnt++;
+        if (batchSize > backPressureThreshold) {
+            backPressureCnt++;
+            if (backPressureListener != null) {
+                backPressureListener.onBackPressure(batchSize, pendingCnt.get());
+            }
+        }
+    }
+
+    private void flushInsertions(int section, List<SectionEntry> entries) {
+        if (entries.isEmpty()) return;
+        if (section == -1) {
+            sectionManager.addSections(new ArrayList<>(entries));
+        } else {
+            sectionManager.insertSections(section, new ArrayList<>(entries));
+        }
+        entries.clear();
+    }
+
+    private static final class InsertSection implements Mutation {
+
+        final int section;
+        final SectionEntry entry;
+
+        InsertSection(int section, SectionEntry entry) {
+            this.section = section;
+            this.entry = entry;
+        }
+
+        @Override
+        public void apply(SectionManager sectionManager) {
+            if (section == -1) {
+                sectionManager.addSections(Collections.singletonList(entry));
+            } else {
+                sectionManager.insertSections(section, Collections.singletonList(entry));
+            }
+        }
+
+    }
+
+    private static final class RemoveSection implements Mutation {
+
+        final int section;
+
+        RemoveSection(int section) {
+            this.section = section;
+        }
+
+        @Override
+        public void apply(SectionManager sectionManager) {
+            sectionManager.removeSection(section);
+        }
+
+    }
+
+    private static final class UpdateSection implements Mutation {
+
+        final int section;
+
+        UpdateSection(int section) {
+            this.section = section;
+        }
+
+        @Override
+        public void apply(SectionManager sectionManager) {
+            sectionManager.updateSection(section);
+        }
+
+    }
+
+}
@@ -0,0 +1,441 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import java.util.Arrays;
+
+/**
+ * Position index of sections used by {@link SectionDataManager}.
+ * <p>
+ * Stores the partial sum array of item counts, where on the i-th position is the number of items
+ * in RecyclerView in all sections before i-th inclusive, and the unique type of each section.
+ * Both are kept in primitive arrays, so lookups don't box values, and the section that
+ * corresponds to the given global adapter position is found by binary search in O(log S).
+ * <p>
+ * Contains only pure position math without any Android dependencies, so it can be benchmarked on
+ * a plain JVM. Arguments aren't checked, it is up to {@link SectionDataManager}.
+ * <p>
+ * Arrays are copied on write after {@link #snapshot()}, so taking a snapshot is O(1) and the
+ * snapshot can be read from any thread while this index is being modified.
+ */
+final class SectionPositionIndex {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] posSum = new int[MIN_CAPACITY];
+    private short[] types = new short[MIN_CAPACITY];
+    private boolean[] headers = new boolean[MIN_CAPACITY];
+    private int size;
+    private boolean isShared;
+
+    private int[] typeToSection = new int[0];
+    private int modCount;
+
+    SectionPositionIndex() {
+    }
+
+    private SectionPositionIndex(int[] posSum, short[] types, boolean[] headers, int[] typeToSection, int size) {
+        this.posSum = posSum;
+        this.types = types;
+        this.headers = headers;
+        this.typeToSection = typeToSection;
+        this.size = size;
+        this.isShared = true;
+    }
+
+    /**
+     * Returns an immutable copy of this index, that shares the arrays with it. Arrays of this
+     * index are copied before the next modification.
+     *
+     * @return Snapshot of the index.
+     */
+    SectionPositionIndex snapshot() {
+        isShared = true;
+        return new SectionPositionIndex(posSum, types, headers, typeToSection, size);
+    }
+
+    /**
+     * Returns the number of sections in the index.
+     *
+     * @return Number of sections.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the total number of items in all sections.
+     *
+     * @return Total number of items.
+     */
+    int getTotalCount() {
+        return size > 0 ? posSum[size - 1] : 0;
+    }
+
+    /**
+     * Returns the unique type of the given section.
+     *
+     * @param section Index of the section.
+     * @return Section type.
+     */
+    short getType(int section) {
+        return types[section];
+    }
+
+    /**
+     * Returns the number of modifications of the index. It changes whenever any section is
+     * inserted, removed or moved or the number of items in it changes, so positions computed
+     * with the same modification count are still valid.
+     *
+     * @return Modification count.
+     */
+    int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Returns whether the header of the given section is visible, so it is the first item in it.
+     *
+     * @param section Index of the section.
+     * @return True if the header is visible, false otherwise.
+     */
+    boolean isHeaderVisible(int section) {
+        return headers[section];
+    }
+
+    /**
+     * Sets the header visibility of the given section. Partial sums should be updated separately.
+     *
+     * @param section Index of the section.
+     * @param visible New header visibility.
+     */
+    void setHeaderVisible(int section, boolean visible) {
+        ensureWritable();
+        headers[section] = visible;
+        modCount++;
+    }
+
+    /**
+     * Returns the first global adapter position of the given section. For the section index equal
+     * to {@link #size()} returns the total number of items.
+     *
+     * @param section Index of the section.
+     * @return First global adapter position.
+     */
+    int getFirstPos(int section) {
+        return section > 0 ? posSum[section - 1] : 0;
+    }
+
+    /**
+     * Returns the number of items in the given section (including header if it is visible).
+     *
+     * @param section Index of the section.
+     * @return Number of items.
+     */
+    int getCount(int section) {
+        return posSum[section] - (section > 0 ? posSum[section - 1] : 0);
+    }
+
+    /**
+     * Inserts the section with the given type and the number of items at the given index and
+     * shifts the partial sums of the following sections in a single pass.
+     *
+     * @param section Index at which the section is to be inserted.
+     * @param type    Unique section type.
+     * @param cnt     Number of items in the section.
+     * @param header  Whether the header of the section is visible.
+     */
+    void insert(int section, short type, int cnt, boolean header) {
+        ensureWritable();
+        ensureCapacity(size + 1);
+        System.arraycopy(types, section, types, section + 1, size - section);
+        System.arraycopy(posSum, section, posSum, section + 1, size - section);
+        System.arraycopy(headers, section, headers, section + 1, size - section);
+        size++;
+        modCount++;
+        types[section] = type;
+        headers[section] = header;
+        posSum[section] = getFirstPos(section) + cnt;
+        for (int s = section + 1; s < size; s++) {
+            posSum[s] += cnt;
+        }
+        reindexTypes(section, size);
+    }
+
+    /**
+     * Inserts <code>n</code> sections with the given types and numbers of items at the given index.
+     * Shifts the following sections once and builds the partial sums of the inserted ones in
+     * O(S + n) in total.
+     *
+     * @param section Index at which the first section is to be inserted.
+     * @param types   Unique types of the inserted sections.
+     * @param cnts    Numbers of items in the inserted sections.
+     * @param headers Header visibility of the inserted sections.
+     * @param n       Number of sections to insert.
+     */
+    void insertAll(int section, short[] types, int[] cnts, boolean[] headers, int n) {
+        ensureWritable();
+        ensureCapacity(size + n);
+        System.arraycopy(this.types, section, this.types, section + n, size - section);
+        System.arraycopy(posSum, section, posSum, section + n, size - section);
+        System.arraycopy(this.headers, section, this.headers, section + n, size - section);
+        System.arraycopy(headers, 0, this.headers, section, n);
+        size += n;
+        modCount++;
+        int sum = getFirstPos(section);
+        for (int i = 0; i < n; i++) {
+            sum += cnts[i];
+            this.types[section + i] = types[i];
+            posSum[section + i] = sum;
+        }
+        int total = sum - getFirstPos(section);
+        for (int s = section + n; s < size; s++) {
+            posSum[s] += total;
+        }
+        reindexTypes(section, size);
+    }
+
+    /**
+     * Replaces all sections with <code>n</code> sections with the given types and precomputed
+     * partial sums of item counts.
+     *
+     * @param types   Unique types of the sections.
+     * @param posSum  Partial sums of item counts of the sections.
+     * @param headers Header visibility of the sections.
+     * @param n       Number of sections.
+     */
+    void set(short[] types, int[] posSum, boolean[] headers, int n) {
+        ensureWritable();
+        ensureCapacity(n);
+        unindexTypes(0, size);
+        System.arraycopy(types, 0, this.types, 0, n);
+        System.arraycopy(posSum, 0, this.posSum, 0, n);
+        System.arraycopy(headers, 0, this.headers, 0, n);
+        size = n;
+        modCount++;
+        reindexTypes(0, n);
+    }
+
+    /**
+     * Removes the section at the given index and shifts the partial sums of the following
+     * sections in a single pass.
+     *
+     * @param section Index of the section to remove.
+     * @return Number of items in the removed section.
+     */
+    int remove(int section) {
+        ensureWritable();
+        int cnt = getCount(section);
+        unindexTypes(section, section + 1);
+        System.arraycopy(types, section + 1, types, section, size - section - 1);
+        System.arraycopy(posSum, section + 1, posSum, section, size - section - 1);
+        System.arraycopy(headers, section + 1, headers, section, size - section - 1);
+        size--;
+        modCount++;
+        for (int s = section; s < size; s++) {
+            posSum[s] -= cnt;
+        }
+        reindexTypes(section, size);
+        return cnt;
+    }
+
+    /**
+     * Removes <code>n</code> sections starting with the given index. Compacts the arrays and shifts
+     * the partial sums of the following sections in a single pass.
+     *
+     * @param section Index of the first section to remove.
+     * @param n       Number of sections to remove.
+     * @return Number of items in the removed sections.
+     */
+    int removeRange(int section, int n) {
+        ensureWritable();
+        int cnt = getFirstPos(section + n) - getFirstPos(section);
+        unindexTypes(section, section + n);
+        System.arraycopy(types, section + n, types, section, size - section - n);
+        System.arraycopy(posSum, section + n, posSum, section, size - section - n);
+        System.arraycopy(headers, section + n, headers, section, size - section - n);
+        size -= n;
+        modCount++;
+        for (int s = section; s < size; s++) {
+            posSum[s] -= cnt;
+        }
+        reindexTypes(section, size);
+        return cnt;
+    }
+
+    /**
+     * Moves the section from one index to another. Only the sections between them are shifted and
+     * their partial sums are updated, so it takes O(|from - to|).
+     *
+     * @param from Current index of the section.
+     * @param to   New index of the section.
+     */
+    void move(int from, int to) {
+        if (from == to) return;
+        ensureWritable();
+        short type = types[from];
+        boolean header = headers[from];
+        int cnt = getCount(from);
+        if (from < to) {
+            for (int s = from; s < to; s++) {
+                types[s] = types[s + 1];
+                headers[s] = headers[s + 1];
+                posSum[s] = posSum[s + 1] - cnt;
+            }
+        } else {
+            for (int s = from; s > to; s--) {
+                types[s] = types[s - 1];
+                headers[s] = headers[s - 1];
+                posSum[s] = posSum[s - 1] + cnt;
+            }
+        }
+        types[to] = type;
+        headers[to] = header;
+        posSum[to] = getFirstPos(to) + cnt;
+        reindexTypes(Math.min(from, to), Math.max(from, to) + 1);
+        modCount++;
+    }
+
+    /**
+     * Updates by <code>cnt</code> items the partial sums starting with the given section.
+     *
+     * @param startSection First section index to be updated.
+     * @param cnt          Value to be updated by.
+     */
+    void update(int startSection, int cnt) {
+        ensureWritable();
+        modCount++;
+        for (int s = startSection; s < size; s++) {
+            posSum[s] += cnt;
+        }
+    }
+
+    /**
+     * Updates by <code>cnt</code> items the partial sums of the sections in the given range, e.g.
+     * when an item is moved from one section to another, only the sections between them change.
+     *
+     * @param startSection First section index to be updated.
+     * @param endSection   Section index after the last one to be updated.
+     * @param cnt          Value to be updated by.
+     */
+    void update(int startSection, int endSection, int cnt) {
+        ensureWritable();
+        modCount++;
+        for (int s = startSection; s < endSection; s++) {
+            posSum[s] += cnt;
+        }
+    }
+
+    /**
+     * Removes all sections.
+     */
+    void clear() {
+        ensureWritable();
+        unindexTypes(0, size);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns the index of the section, which contains the given global adapter position. Upper
+     * bound binary search finds the first section, where the partial sum is greater than the
+     * position.
+     *
+     * @param adapterPos Global adapter position in [0, {@link #getTotalCount()}).
+     * @return Index of the section.
+     */
+    int calcSection(int adapterPos) {
+        int l = 0, r = size - 1;
+        while (l < r) {
+            int m = (l + r) >>> 1;
+            if (adapterPos < posSum[m]) {
+                r = m;
+            } else {
+                l = m + 1;
+            }
+        }
+        return l;
+    }
+
+    /**
+     * Returns the index of the section with the given type in O(1). Indexes of sections are
+     * stored by type and updated along with the arrays: insertions, removals and moves renumber
+     * only the sections they shift anyway, so interleaved changes and lookups don't rebuild the
+     * whole map.
+     *
+     * @param type Unique section type.
+     * @return Index of the section or -1, if there is no section with the given type.
+     */
+    int indexOf(short type) {
+        return type >= 0 && type < typeToSection.length ? typeToSection[type] : -1;
+    }
+
+    /**
+     * Stores the current indexes of the sections in [from, to) by their types.
+     */
+    private void reindexTypes(int from, int to) {
+        for (int s = from; s < to; s++) {
+            short type = types[s];
+            if (type >= typeToSection.length) {
+                int oldLength = typeToSection.length;
+                typeToSection = Arrays.copyOf(typeToSection, Math.max(type + 1, oldLength * 2));
+                Arrays.fill(typeToSection, oldLength, typeToSection.length, -1);
+            }
+            typeToSection[type] = s;
+        }
+    }
+
+    /**
+     * Removes the sections in [from, to) from the type map before they are removed.
+     */
+    private void unindexTypes(int from, int to) {
+        for (int s = from; s < to; s++) {
+            if (types[s] < typeToSection.length) {
+                typeToSection[types[s]] = -1;
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= posSum.length) return;
+        int newCapacity = Math.max(capacity, posSum.length * 2);
+        posSum = Arrays.copyOf(posSum, newCapacity);
+        types = Arrays.copyOf(types, newCapacity);
+        headers = Arrays.copyOf(headers, newCapacity);
+    }
+
+    /**
+     * Copies the arrays shared with a snapshot before they are modified.
+     */
+    private void ensureWritable() {
+        if (!isShared) return;
+        posSum = posSum.clone();
+        types = types.clone();
+        headers = headers.clone();
+        typeToSection = typeToSection.clone();
+        isShared = false;
+    }
+
+}
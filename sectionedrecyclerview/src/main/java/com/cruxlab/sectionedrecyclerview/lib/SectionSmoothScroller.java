@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import android.content.Context;
+
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.LinearSmoothScroller;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Scrolls RecyclerView to the given adapter position, so that the target item is laid out with
+ * the given offset from the start edge.
+ * <p>
+ * When the target is far from the visible range, RecyclerView first jumps close to it via
+ * {@link #scrollToPosition(RecyclerView, int, int)}, so only the last {@link #MAX_SMOOTH_SCROLL_SCREENS}
+ * screens are animated. This keeps the number of bound ViewHolders bounded regardless of the
+ * distance.
+ */
+class SectionSmoothScroller extends LinearSmoothScroller {
+
+    /**
+     * Maximum distance to be animated in screens, where a screen is the number of currently
+     * visible items.
+     */
+    static final int MAX_SMOOTH_SCROLL_SCREENS = 2;
+
+    private final int offset;
+    private final boolean isReversed;
+
+    private SectionSmoothScroller(Context context, int targetPos, int offset, boolean isReversed) {
+        super(context);
+        this.offset = offset;
+        this.isReversed = isReversed;
+        setTargetPosition(targetPos);
+    }
+
+    @Override
+    protected int getVerticalSnapPreference() {
+        return isReversed ? SNAP_TO_END : SNAP_TO_START;
+    }
+
+    @Override
+    protected int getHorizontalSnapPreference() {
+        return isReversed ? SNAP_TO_END : SNAP_TO_START;
+    }
+
+    @Override
+    public int calculateDtToFit(int viewStart, int viewEnd, int boxStart, int boxEnd, int snapPreference) {
+        if (snapPreference == SNAP_TO_END) {
+            return boxEnd - viewEnd - offset;
+        }
+        return boxStart - viewStart + offset;
+    }
+
+    /**
+     * Scrolls RecyclerView to the given adapter position immediately.
+     *
+     * @param recyclerView RecyclerView to scroll.
+     * @param targetPos    Global adapter position.
+     * @param offset       Distance in px between the start edge and the target item.
+     */
+    static void scrollToPosition(RecyclerView recyclerView, int targetPos, int offset) {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        recyclerView.stopScroll();
+        if (layoutManager instanceof LinearLayoutManager) {
+            ((LinearLayoutManager) layoutManager).scrollToPositionWithOffset(targetPos, offset);
+        } else if (layoutManager instanceof SectionedLayoutManager) {
+            ((SectionedLayoutManager) layoutManager).scrollToPositionWithOffset(targetPos, offset);
+        } else if (layoutManager != null) {
+            layoutManager.scrollToPosition(targetPos);
+        }
+    }
+
+    /**
+     * Smoothly scrolls RecyclerView to the given adapter position. If the target is further than
+     * {@link #MAX_SMOOTH_SCROLL_SCREENS} screens from the visible range, jumps close to it first
+     * and starts the animation after the next layout.
+     *
+     * @param recyclerView RecyclerView to scroll.
+     * @param targetPos    Global adapter position.
+     * @param offset       Distance in px between the start edge and the target item.
+     */
+    static void smoothScrollToPosition(final RecyclerView recyclerView, int targetPos, int offset) {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager == null) return;
+        boolean isReversed = isReversed(recyclerView, layoutManager);
+        final SectionSmoothScroller smoothScroller = new SectionSmoothScroller(
+                recyclerView.getContext(), targetPos, offset, isReversed);
+        int firstPos = RecyclerView.NO_POSITION;
+        int lastPos = RecyclerView.NO_POSITION;
+        if (layoutManager instanceof LinearLayoutManager) {
+            firstPos = ((LinearLayoutManager) layoutManager).findFirstVisibleItemPosition();
+            lastPos = ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+        } else if (layoutManager instanceof SectionedLayoutManager) {
+            firstPos = ((SectionedLayoutManager) layoutManager).findFirstVisibleItemPosition();
+            lastPos = ((SectionedLayoutManager) layoutManager).findLastVisibleItemPosition();
+        }
+        if (firstPos == RecyclerView.NO_POSITION || lastPos == RecyclerView.NO_POSITION) {
+            layoutManager.startSmoothScroll(smoothScroller);
+            return;
+        }
+        int maxDistance = (lastPos - firstPos + 1) * MAX_SMOOTH_SCROLL_SCREENS;
+        int jumpPos = RecyclerView.NO_POSITION;
+        if (targetPos > lastPos + maxDistance) {
+            jumpPos = targetPos - maxDistance;
+        } else if (targetPos < firstPos - maxDistance) {
+            jumpPos = targetPos + maxDistance;
+        }
+        if (jumpPos == RecyclerView.NO_POSITION) {
+            layoutManager.startSmoothScroll(smoothScroller);
+            return;
+        }
+        scrollToPosition(recyclerView, jumpPos, 0);
+        // Uses postponed runnable to start the animation after RecyclerView is laid out at the
+        // new position.
+        recyclerView.post(new Runnable() {
+            @Override
+            public void run() {
+                RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+                if (layoutManager != null) {
+                    layoutManager.startSmoothScroll(smoothScroller);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns whether the start edge of the layout is at the bottom or right, so the target item
+     * should be snapped to the end of RecyclerView. Horizontal layout is also reversed, when
+     * RecyclerView has RTL layout direction.
+     */
+    private static boolean isReversed(RecyclerView recyclerView, RecyclerView.LayoutManager layoutManager) {
+        if (!(layoutManager instanceof LinearLayoutManager)) return false;
+        LinearLayoutManager linearLayoutManager = (LinearLayoutManager) layoutManager;
+        boolean isReversed = linearLayoutManager.getReverseLayout();
+        if (linearLayoutManager.getOrientation() == LinearLayoutManager.HORIZONTAL
+                && ViewCompat.getLayoutDirection(recyclerView) == ViewCompat.LAYOUT_DIRECTION_RTL) {
+            isReversed = !isReversed;
+        }
+        return isReversed;
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import androidx.tracing.Trace;
+
+/**
+ * Wraps {@link Trace} to label trace sections around the library hot paths with the section index
+ * and name (see {@link BaseSectionAdapter#getSectionName()}), e.g.
+ * <code>SRV.onBindViewHolder #12 FeedAdapter</code>.
+ * <p>
+ * Labels are built only when tracing is enabled. Callers should check {@link #isEnabled()} once
+ * and end the section only if it has been begun, so that sections stay balanced even if tracing
+ * is toggled in between.
+ */
+final class SectionTrace {
+
+    static final String CREATE_VIEW_HOLDER = "SRV.onCreateViewHolder";
+    static final String BIND_VIEW_HOLDER = "SRV.onBindViewHolder";
+    static final String CHECK_HEADER_VIEW = "SRV.checkIsHeaderViewChanged";
+    static final String UPDATE_POS_SUM = "SRV.updatePosSum";
+    static final String APPLY_MUTATIONS = "SRV.applyMutations";
+
+    /**
+     * Maximum length of the section name supported by {@link android.os.Trace}.
+     */
+    private static final int MAX_LABEL_LENGTH = 127;
+
+    private SectionTrace() {}
+
+    static boolean isEnabled() {
+        return Trace.isEnabled();
+    }
+
+    static void beginSection(String label) {
+        Trace.beginSection(label);
+    }
+
+    static void beginSection(String label, int section) {
+        Trace.beginSection(label + " #" + section);
+    }
+
+    static void beginSection(String label, SectionAdapterWrapper adapterWrapper) {
+        String fullLabel = label + " #" + adapterWrapper.getSection() + " " + adapterWrapper.getSectionName();
+        Trace.beginSection(fullLabel.length() > MAX_LABEL_LENGTH
+                ? fullLabel.substring(0, MAX_LABEL_LENGTH) : fullLabel);
+    }
+
+    static void endSection() {
+        Trace.endSection();
+    }
+
+}
@@ -0,0 +1,535 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import android.os.SystemClock;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * Tracks which sections and items are visible in the RecyclerView and dispatches enter, exit and
+ * visible fraction callbacks, e.g. for impression logging.
+ * <p>
+ * Visible sections are calculated from the first and the last visible adapter positions only: both
+ * are mapped to sections via {@link SectionDataManager#calcSection(int)} binary search, so it takes
+ * O(log S) per update regardless of the section count. Visible fraction of a section is the share
+ * of its items (including header) between these positions. Item fractions are calculated from the
+ * bounds of the attached child views, only if {@link ItemVisibilityListener} is set.
+ * <p>
+ * Sections are identified by their types, so they don't exit and enter again when other sections
+ * are inserted or removed. Items are identified by their IDs, if stable IDs are enabled (see
+ * {@link SectionDataManager#setHasStableIds(boolean)}), and by the section key
+ * {@link BaseSectionAdapter#getSectionKey()} and the item key
+ * {@link BaseSectionAdapter#getItemKey(int)} otherwise. Items without either of them are identified
+ * by their positions, so they exit and enter again when other items are inserted or removed before
+ * them.
+ * Visibility state is kept in preallocated arrays, which are swapped on each update, so scrolling
+ * doesn't allocate memory once the arrays have grown to the number of visible items.
+ * <p>
+ * Should be attached via {@link #attachTo(RecyclerView, SectionDataManager)}. RecyclerView's layout
+ * manager should be a successor of LinearLayoutManager or {@link SectionedLayoutManager}.
+ * Callbacks can be dispatched during scroll or layout, so they shouldn't change the sections
+ * synchronously.
+ */
+public class SectionVisibilityTracker {
+
+    /**
+     * Interface for receiving section visibility changes.
+     */
+    public interface SectionVisibilityListener {
+
+        /**
+         * Called when the section becomes visible according to the section threshold and has
+         * stayed visible for the debounce time.
+         *
+         * @param section Index of the section.
+         */
+        void onSectionEntered(int section);
+
+        /**
+         * Called when the entered section is no longer visible.
+         *
+         * @param section Index of the section or -1, if it has been removed.
+         */
+        void onSectionExited(int section);
+
+        /**
+         * Called when the section enters and then when its visible fraction changes by at least
+         * the fraction step or reaches 1.
+         *
+         * @param section  Index of the section.
+         * @param fraction Share of the section items, that are visible, in (0, 1].
+         */
+        void onSectionVisibleFractionChanged(int section, float fraction);
+
+    }
+
+    /**
+     * Interface for receiving item visibility changes.
+     */
+    public interface ItemVisibilityListener {
+
+        /**
+         * Called when the item becomes visible according to the item threshold and has stayed
+         * visible for the debounce time. Headers are not tracked.
+         *
+         * @param section Index of the section.
+         * @param pos     Item position in section.
+         */
+        void onItemEntered(int section, int pos);
+
+        /**
+         * Called when the entered item is no longer visible.
+         *
+         * @param section Index of the section, when the item was visible last time.
+         * @param pos     Item position in section, when the item was visible last time.
+         */
+        void onItemExited(int section, int pos);
+
+        /**
+         * Called when the item enters and then when its visible fraction changes by at least
+         * the fraction step or reaches 1.
+         *
+         * @param section  Index of the section.
+         * @param pos      Item position in section.
+         * @param fraction Share of the item view area, that is visible, in (0, 1].
+         */
+        void onItemVisibleFractionChanged(int section, int pos, float fraction);
+
+    }
+
+    private RecyclerView recyclerView;
+    private SectionDataManager sectionDataManager;
+    private SectionVisibilityListener sectionListener;
+    private ItemVisibilityListener itemListener;
+
+    private float sectionThreshold = 0;
+    private float itemThreshold = 0.5f;
+    private float fractionStep = 0.1f;
+    private long debounceMillis;
+
+    private VisibleSet sections = new VisibleSet();
+    private VisibleSet nextSections = new VisibleSet();
+    private VisibleSet items = new VisibleSet();
+    private VisibleSet nextItems = new VisibleSet();
+    private boolean isUpdatePending;
+
+    /**
+     * Attaches to the given RecyclerView and SectionDataManager. Adds {@link #onScrollListener} to
+     * the given RecyclerView to update visibility while scrolling and after layout.
+     *
+     * @param recyclerView       RecyclerView to attach to.
+     * @param sectionDataManager SectionDataManager to attach to.
+     */
+    public void attachTo(RecyclerView recyclerView, SectionDataManager sectionDataManager) {
+        this.recyclerView = recyclerView;
+        this.sectionDataManager = sectionDataManager;
+        recyclerView.addOnScrollListener(onScrollListener);
+        update();
+    }
+
+    /**
+     * Returns whether this SectionVisibilityTracker has been attached to RecyclerView and
+     * SectionDataManager.
+     *
+     * @return True if it has been attached, false otherwise.
+     */
+    public boolean isAttached() {
+        return recyclerView != null;
+    }
+
+    /**
+     * Detaches from RecyclerView and SectionDataManager. Entered sections and items exit.
+     */
+    public void detach() {
+        if (!isAttached()) {
+            throw new RuntimeException("SectionVisibilityTracker hasn't been attached " +
+                    "to any RecyclerView and SectionDataManager.");
+        }
+        recyclerView.removeOnScrollListener(onScrollListener);
+        recyclerView.removeCallbacks(updateRunnable);
+        isUpdatePending = false;
+        nextSections.clear();
+        nextItems.clear();
+        dispatchExits(sections, nextSections, true);
+        dispatchExits(items, nextItems, false);
+        sections.clear();
+        items.clear();
+        recyclerView = null;
+        sectionDataManager = null;
+    }
+
+    /**
+     * Sets SectionVisibilityListener to receive section visibility changes.
+     *
+     * @param sectionListener SectionVisibilityListener or null to stop tracking sections.
+     */
+    public void setSectionVisibilityListener(@Nullable SectionVisibilityListener sectionListener) {
+        this.sectionListener = sectionListener;
+    }
+
+    /**
+     * Sets ItemVisibilityListener to receive item visibility changes.
+     *
+     * @param itemListener ItemVisibilityListener or null to stop tracking items.
+     */
+    public void setItemVisibilityListener(@Nullable ItemVisibilityListener itemListener) {
+        this.itemListener = itemListener;
+    }
+
+    /**
+     * Sets the share of section items, that should be visible to consider the section visible.
+     * A section, that fills the whole visible range, is always visible. Default is 0, so a section
+     * is visible if at least one of its items is.
+     *
+     * @param threshold Share of the section items in [0, 1].
+     */
+    public void setSectionThreshold(float threshold) {
+        checkFraction(threshold);
+        this.sectionThreshold = threshold;
+    }
+
+    /**
+     * Sets the share of the item view area, that should be within the RecyclerView bounds to
+     * consider the item visible. Default is 0.5.
+     *
+     * @param threshold Share of the item view area in [0, 1].
+     */
+    public void setItemThreshold(float threshold) {
+        checkFraction(threshold);
+        this.itemThreshold = threshold;
+    }
+
+    /**
+     * Sets the minimal change of the section or item visible fraction to be reported.
+     * Default is 0.1.
+     *
+     * @param step Fraction step in [0, 1].
+     */
+    public void setFractionStep(float step) {
+        checkFraction(step);
+        this.fractionStep = step;
+    }
+
+    /**
+     * Sets the time, that a section or an item should stay visible before it enters, so that
+     * fast scrolling doesn't produce impressions. Default is 0.
+     *
+     * @param debounceMillis Time in ms.
+     */
+    public void setDebounceMillis(long debounceMillis) {
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("Debounce time cannot be negative.");
+        }
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Recalculates visible sections and items and dispatches callbacks. Called automatically on
+     * scroll and after layout, but can be called to force the update, e.g. when the RecyclerView
+     * becomes visible on the screen.
+     */
+    public void update() {
+        if (!isAttached()) {
+            throw new RuntimeException("SectionVisibilityTracker hasn't been attached " +
+                    "to any RecyclerView and SectionDataManager.");
+        }
+        long now = SystemClock.uptimeMillis();
+        nextSections.clear();
+        nextItems.clear();
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        int firstPos = RecyclerView.NO_POSITION;
+        int lastPos = RecyclerView.NO_POSITION;
+        if (layoutManager instanceof LinearLayoutManager) {
+            firstPos = ((LinearLayoutManager) layoutManager).findFirstVisibleItemPosition();
+            lastPos = ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+        } else if (layoutManager instanceof SectionedLayoutManager) {
+            firstPos = ((SectionedLayoutManager) layoutManager).findFirstVisibleItemPosition();
+            lastPos = ((SectionedLayoutManager) layoutManager).findLastVisibleItemPosition();
+        }
+        int totalCnt = sectionDataManager.getTotalItemCount();
+        if (firstPos != RecyclerView.NO_POSITION && lastPos != RecyclerView.NO_POSITION
+                && firstPos <= lastPos && lastPos < totalCnt) {
+            if (sectionListener != null) {
+                collectSections(firstPos, lastPos, now);
+            }
+            if (itemListener != null) {
+                collectItems(now);
+            }
+        }
+        dispatchExits(sections, nextSections, true);
+        dispatchExits(items, nextItems, false);
+        VisibleSet tmp = sections;
+        sections = nextSections;
+        nextSections = tmp;
+        tmp = items;
+        items = nextItems;
+        nextItems = tmp;
+        long nextUpdateTime = Math.min(dispatchEnters(sections, true, now), dispatchEnters(items, false, now));
+        if (nextUpdateTime != Long.MAX_VALUE && !isUpdatePending) {
+            isUpdatePending = true;
+            recyclerView.postDelayed(updateRunnable, nextUpdateTime - now);
+        }
+    }
+
+    /**
+     * Collects visible sections between the first and the last visible positions to
+     * {@link #nextSections}.
+     */
+    private void collectSections(int firstPos, int lastPos, long now) {
+        int firstSection = sectionDataManager.calcSection(firstPos);
+        int lastSection = sectionDataManager.calcSection(lastPos);
+        for (int section = firstSection; section <= lastSection; section++) {
+            int start = sectionDataManager.getSectionFirstPos(section);
+            int cnt = sectionDataManager.getSectionRealItemCount(section);
+            if (cnt == 0) continue;
+            int end = start + cnt - 1;
+            int visibleCnt = Math.min(lastPos, end) - Math.max(firstPos, start) + 1;
+            float fraction = (float) visibleCnt / cnt;
+            boolean fillsRange = start <= firstPos && lastPos <= end;
+            if (fraction >= sectionThreshold || fillsRange) {
+                nextSections.add(sections, sectionDataManager.getSectionType(section), 0, section, -1,
+                        fraction, now);
+            }
+        }
+    }
+
+    /**
+     * Collects visible items of the attached child views to {@link #nextItems}.
+     */
+    private void collectItems(long now) {
+        RecyclerView.Adapter<ViewHolderWrapper> adapter = sectionDataManager.getAdapter();
+        boolean hasStableIds = adapter.hasStableIds();
+        int left = recyclerView.getPaddingLeft();
+        int top = recyclerView.getPaddingTop();
+        int right = recyclerView.getWidth() - recyclerView.getPaddingRight();
+        int bottom = recyclerView.getHeight() - recyclerView.getPaddingBottom();
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            View child = recyclerView.getChildAt(i);
+            int adapterPos = recyclerView.getChildAdapterPosition(child);
+            if (adapterPos == RecyclerView.NO_POSITION) continue;
+            int pos = sectionDataManager.calcPosInSection(adapterPos);
+            if (pos == -1) continue;
+            int width = child.getWidth();
+            int height = child.getHeight();
+            if (width <= 0 || height <= 0) continue;
+            int childLeft = child.getLeft() + (int) child.getTranslationX();
+            int childTop = child.getTop() + (int) child.getTranslationY();
+            int visibleWidth = Math.min(right, childLeft + width) - Math.max(left, childLeft);
+            int visibleHeight = Math.min(bottom, childTop + height) - Math.max(top, childTop);
+            if (visibleWidth <= 0 || visibleHeight <= 0) continue;
+            float fraction = (float) visibleWidth * visibleHeight / ((float) width * height);
+            if (fraction >= itemThreshold) {
+                int section = sectionDataManager.calcSection(adapterPos);
+                long id;
+                long key;
+                if (hasStableIds) {
+                    id = adapter.getItemId(adapterPos);
+                    key = 0;
+                } else {
+                    // Default item IDs are positions, so (section key, item key) is used instead.
+                    id = sectionDataManager.getSectionKey(section);
+                    key = sectionDataManager.getSectionItemKey(section, pos);
+                }
+                nextItems.add(items, id, key, section, pos, fraction, now);
+            }
+        }
+    }
+
+    /**
+     * Dispatches exit callbacks for entered entries of <code>prev</code>, that are missing in
+     * <code>next</code>.
+     */
+    private void dispatchExits(VisibleSet prev, VisibleSet next, boolean isSection) {
+        for (int i = 0; i < prev.size; i++) {
+            if (prev.isKept[i] || !prev.isEntered[i]) continue;
+            if (isSection) {
+                if (sectionListener == null) continue;
+                int section = isAttached() ? sectionDataManager.indexOfSectionType((short) prev.ids[i]) : -1;
+                sectionListener.onSectionExited(section);
+            } else if (itemListener != null) {
+                itemListener.onItemExited(prev.sections[i], prev.positions[i]);
+            }
+        }
+    }
+
+    /**
+     * Dispatches enter and fraction callbacks for entries of the given set.
+     *
+     * @return Time of the next pending enter or {@link Long#MAX_VALUE}, if there are none.
+     */
+    private long dispatchEnters(VisibleSet set, boolean isSection, long now) {
+        long nextUpdateTime = Long.MAX_VALUE;
+        for (int i = 0; i < set.size; i++) {
+            if (!set.isEntered[i]) {
+                long enterTime = set.visibleSince[i] + debounceMillis;
+                if (enterTime > now) {
+                    nextUpdateTime = Math.min(nextUpdateTime, enterTime);
+                    continue;
+                }
+                set.isEntered[i] = true;
+                if (isSection) {
+                    sectionListener.onSectionEntered(set.sections[i]);
+                } else {
+                    itemListener.onItemEntered(set.sections[i], set.positions[i]);
+                }
+            }
+            float fraction = set.fractions[i];
+            float reported = set.reportedFractions[i];
+            if (Math.abs(fraction - reported) >= fractionStep
+                    || (fraction != reported && (fraction == 1 || reported < 0))) {
+                set.reportedFractions[i] = fraction;
+                if (isSection) {
+                    sectionListener.onSectionVisibleFractionChanged(set.sections[i], fraction);
+                } else {
+                    itemListener.onItemVisibleFractionChanged(set.sections[i], set.positions[i], fraction);
+                }
+            }
+        }
+        return nextUpdateTime;
+    }
+
+    private void checkFraction(float fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Fraction " + fraction + " is out of range [0, 1].");
+        }
+    }
+
+    /**
+     * Updates visibility while scrolling. RecyclerView also calls it after layout, so data set
+     * changes are handled too.
+     */
+    private RecyclerView.OnScrollListener onScrollListener = new RecyclerView.OnScrollListener() {
+
+        @Override
+        public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+            super.onScrolled(recyclerView, dx, dy);
+            update();
+        }
+
+    };
+
+    /**
+     * Updates visibility when pending sections or items have stayed visible for the debounce time.
+     */
+    private Runnable updateRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isUpdatePending = false;
+            if (isAttached()) {
+                update();
+            }
+        }
+    };
+
+    /**
+     * Visible sections or items in parallel arrays, that grow on demand and are reused between
+     * updates.
+     */
+    private static class VisibleSet {
+
+        long[] ids = new long[8];
+        long[] keys = new long[8];
+        int[] sections = new int[8];
+        int[] positions = new int[8];
+        float[] fractions = new float[8];
+        float[] reportedFractions = new float[8];
+        long[] visibleSince = new long[8];
+        boolean[] isEntered = new boolean[8];
+        boolean[] isKept = new boolean[8];
+        int size;
+        int searchHint;
+
+        void clear() {
+            size = 0;
+            searchHint = 0;
+        }
+
+        /**
+         * Adds the entry carrying over its state from <code>prev</code>, if it has been visible
+         * there. Entries usually keep their order, so the search starts after the last match and
+         * takes O(1) on average.
+         * <p>
+         * Entries are matched by both the ID and the key, or also by the position, if the key is
+         * {@link BaseSectionAdapter#NO_ITEM_KEY}.
+         */
+        void add(VisibleSet prev, long id, long key, int section, int pos, float fraction, long now) {
+            if (size == ids.length) {
+                grow();
+            }
+            int prevIdx = prev.indexOf(id, key, pos);
+            ids[size] = id;
+            keys[size] = key;
+            sections[size] = section;
+            positions[size] = pos;
+            fractions[size] = fraction;
+            isKept[size] = false;
+            if (prevIdx != -1) {
+                prev.isKept[prevIdx] = true;
+                reportedFractions[size] = prev.reportedFractions[prevIdx];
+                visibleSince[size] = prev.visibleSince[prevIdx];
+                isEntered[size] = prev.isEntered[prevIdx];
+            } else {
+                reportedFractions[size] = -1;
+                visibleSince[size] = now;
+                isEntered[size] = false;
+            }
+            size++;
+        }
+
+        private int indexOf(long id, long key, int pos) {
+            for (int k = 0; k < size; k++) {
+                int i = (searchHint + k) % size;
+                if (ids[i] == id && keys[i] == key && !isKept[i]
+                        && (key != BaseSectionAdapter.NO_ITEM_KEY || positions[i] == pos)) {
+                    searchHint = i + 1;
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            sections = Arrays.copyOf(sections, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            fractions = Arrays.copyOf(fractions, capacity);
+            reportedFractions = Arrays.copyOf(reportedFractions, capacity);
+            visibleSince = Arrays.copyOf(visibleSince, capacity);
+            isEntered = Arrays.copyOf(isEntered, capacity);
+            isKept = Arrays.copyOf(isKept, capacity);
+        }
+
+    }
+
+}
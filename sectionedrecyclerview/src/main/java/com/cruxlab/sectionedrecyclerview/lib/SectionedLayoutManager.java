@@ -0,0 +1,683 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Cruxlab, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cruxlab.sectionedrecyclerview.lib;
+
+import android.graphics.PointF;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearSmoothScroller;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Vertical RecyclerView.LayoutManager that lays out sections natively.
+ * <p>
+ * Each section is laid out as a block of rows: an optional full width header row followed by
+ * item rows. The number of items in a row (span count) is provided for each section by
+ * {@link SpanCountLookup}, so a section can be a linear list (one span) or a grid. Rows are
+ * derived from {@link SectionDataManager}'s position index, so no SpanSizeLookup is required.
+ * <p>
+ * Pinned headers are handled during layout and scrolling: the header of the section that
+ * corresponds to the first visible row is laid out at the top as the last child, so it is drawn
+ * above other items and pushed out by the next section. Hence there is no need to use
+ * {@link SectionHeaderLayout} with this layout manager.
+ * <p>
+ * Scroll extents are estimated from row and header heights learned for each section type by
+ * {@link SectionHeightEstimator}.
+ */
+public class SectionedLayoutManager extends RecyclerView.LayoutManager
+        implements RecyclerView.SmoothScroller.ScrollVectorProvider {
+
+    /**
+     * Interface for providing the number of items in a row for each section.
+     */
+    public interface SpanCountLookup {
+
+        /**
+         * Returns the number of items in a row of the given section. Header always takes the
+         * whole row.
+         *
+         * @param section Index of the section.
+         * @return Number of items in a row, 1 for a linear section.
+         */
+        int getSpanCount(int section);
+
+    }
+
+    private final SectionDataManager sectionDataManager;
+    private SpanCountLookup spanCountLookup;
+    private boolean isHeaderPinningEnabled = true;
+
+    private int pendingScrollPos = RecyclerView.NO_POSITION;
+    private int pendingScrollOffset;
+
+    private View pinnedHeaderView;
+    private boolean isPinnedHeaderNatural;
+    private int pinnedHeaderNaturalTop;
+
+    private final SectionHeightEstimator heightEstimator;
+
+    public SectionedLayoutManager(@NonNull SectionDataManager sectionDataManager) {
+        this(sectionDataManager, null);
+    }
+
+    public SectionedLayoutManager(@NonNull SectionDataManager sectionDataManager,
+                                  SpanCountLookup spanCountLookup) {
+        this.sectionDataManager = sectionDataManager;
+        this.spanCountLookup = spanCountLookup;
+        this.heightEstimator = new SectionHeightEstimator(sectionDataManager);
+        heightEstimator.setSpanCountLookup(spanCountLookup);
+    }
+
+    /**
+     * Sets SpanCountLookup to determine the number of items in a row for each section. If it is
+     * null, all sections are laid out as linear lists.
+     *
+     * @param spanCountLookup SpanCountLookup to use or null.
+     */
+    public void setSpanCountLookup(SpanCountLookup spanCountLookup) {
+        this.spanCountLookup = spanCountLookup;
+        heightEstimator.setSpanCountLookup(spanCountLookup);
+        requestLayout();
+    }
+
+    /**
+     * Sets whether pinned headers should be displayed at the top. Enabled by default.
+     *
+     * @param enabled True to display pinned headers, false otherwise.
+     */
+    public void setHeaderPinningEnabled(boolean enabled) {
+        if (isHeaderPinningEnabled == enabled) return;
+        isHeaderPinningEnabled = enabled;
+        requestLayout();
+    }
+
+    /**
+     * Returns whether pinned headers are displayed at the top.
+     *
+     * @return True if pinned headers are displayed, false otherwise.
+     */
+    public boolean isHeaderPinningEnabled() {
+        return isHeaderPinningEnabled;
+    }
+
+    /**
+     * Scrolls to the first position of the given section, so that it is displayed at the top.
+     *
+     * @param section Index of the section.
+     */
+    public void scrollToSection(int section) {
+        scrollToPositionWithOffset(sectionDataManager.getSectionFirstPos(section), 0);
+    }
+
+    /**
+     * Scrolls to the given adapter position, so that its row is laid out <code>offset</code>
+     * pixels below the top padding.
+     * <p>
+     * Similar to {@link androidx.recyclerview.widget.LinearLayoutManager#scrollToPositionWithOffset(int, int)}.
+     *
+     * @param position Global adapter position.
+     * @param offset   Distance in px between the top padding and the row.
+     */
+    public void scrollToPositionWithOffset(int position, int offset) {
+        pendingScrollPos = position;
+        pendingScrollOffset = offset;
+        requestLayout();
+    }
+
+    @Override
+    public void scrollToPosition(int position) {
+        scrollToPositionWithOffset(position, 0);
+    }
+
+    @Override
+    public void smoothScrollToPosition(RecyclerView recyclerView, RecyclerView.State state, int position) {
+        LinearSmoothScroller smoothScroller = new LinearSmoothScroller(recyclerView.getContext());
+        smoothScroller.setTargetPosition(position);
+        startSmoothScroll(smoothScroller);
+    }
+
+    @Override
+    public PointF computeScrollVectorForPosition(int targetPosition) {
+        int firstPos = getFirstRowPos();
+        if (firstPos == RecyclerView.NO_POSITION) return null;
+        return new PointF(0, targetPosition < firstPos ? -1 : 1);
+    }
+
+    /**
+     * Returns the adapter position of the first visible row start or {@link RecyclerView#NO_POSITION}.
+     * The pinned header is not taken into account.
+     *
+     * @return First visible adapter position.
+     */
+    public int findFirstVisibleItemPosition() {
+        return getFirstRowPos();
+    }
+
+    /**
+     * Returns the adapter position of the last visible item or {@link RecyclerView#NO_POSITION}.
+     *
+     * @return Last visible adapter position.
+     */
+    public int findLastVisibleItemPosition() {
+        int bottom = getHeight() - getPaddingBottom();
+        int lastPos = RecyclerView.NO_POSITION;
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child == pinnedHeaderView && !isPinnedHeaderNatural) continue;
+            if (getDecoratedTop(child) < bottom) {
+                lastPos = Math.max(lastPos, getPosition(child));
+            }
+        }
+        return lastPos;
+    }
+
+    @Override
+    public RecyclerView.LayoutParams generateDefaultLayoutParams() {
+        return new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    public boolean isAutoMeasureEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean canScrollVertically() {
+        return true;
+    }
+
+    /* LAYOUT */
+
+    @Override
+    public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+        int itemCnt = state.getItemCount();
+        if (itemCnt == 0) {
+            removeAndRecycleAllViews(recycler);
+            pinnedHeaderView = null;
+            return;
+        }
+        unpinHeader(recycler);
+        int anchorPos = 0;
+        int anchorTop = getPaddingTop();
+        if (pendingScrollPos != RecyclerView.NO_POSITION) {
+            anchorPos = pendingScrollPos;
+            anchorTop += pendingScrollOffset;
+        } else if (getChildCount() > 0) {
+            View anchor = getChildAt(0);
+            anchorPos = getPosition(anchor);
+            anchorTop = getDecoratedTop(anchor);
+        }
+        anchorPos = getRowStartPos(Math.max(0, Math.min(anchorPos, itemCnt - 1)));
+        detachAndScrapAttachedViews(recycler);
+        int bottom = anchorTop;
+        int pos = anchorPos;
+        int limit = getHeight() - getPaddingBottom();
+        while (pos < itemCnt && bottom < limit) {
+            bottom += layoutRow(recycler, pos, bottom, false);
+            pos = getRowEndPos(pos);
+        }
+        fillTop(recycler, getPaddingTop());
+        if (pos >= itemCnt && bottom < limit) {
+            offsetChildrenVertical(limit - bottom);
+            fillTop(recycler, getPaddingTop());
+        }
+        if (getChildCount() > 0 && getPosition(getChildAt(0)) == 0) {
+            int top = getDecoratedTop(getChildAt(0));
+            if (top > getPaddingTop()) {
+                offsetChildrenVertical(getPaddingTop() - top);
+            }
+        }
+        recycleOutOfBounds(recycler);
+        pinHeader(recycler);
+    }
+
+    @Override
+    public void onLayoutCompleted(RecyclerView.State state) {
+        super.onLayoutCompleted(state);
+        pendingScrollPos = RecyclerView.NO_POSITION;
+        pendingScrollOffset = 0;
+    }
+
+    @Override
+    public int scrollVerticallyBy(int dy, RecyclerView.Recycler recycler, RecyclerView.State state) {
+        if (getChildCount() == 0 || dy == 0) return 0;
+        unpinHeader(recycler);
+        int consumed;
+        if (dy > 0) {
+            int limit = getHeight() - getPaddingBottom();
+            int lastIdx = getChildCount() - 1;
+            int lastRowStart = getRowStartPos(getPosition(getChildAt(lastIdx)));
+            int bottom = getRowBottom(lastIdx, lastRowStart);
+            int nextPos = getRowEndPos(lastRowStart);
+            while (bottom - dy < limit && nextPos < state.getItemCount()) {
+                bottom += layoutRow(recycler, nextPos, bottom, false);
+                nextPos = getRowEndPos(nextPos);
+            }
+            consumed = Math.min(dy, Math.max(0, bottom - limit));
+        } else {
+            int top = fillTop(recycler, getPaddingTop() + dy);
+            consumed = Math.max(dy, Math.min(0, top - getPaddingTop()));
+        }
+        offsetChildrenVertical(-consumed);
+        recycleOutOfBounds(recycler);
+        pinHeader(recycler);
+        return consumed;
+    }
+
+    /**
+     * Prepends rows above the first laid out row until its top reaches the given limit or there
+     * are no more rows.
+     *
+     * @param recycler Recycler to obtain views from.
+     * @param limit    Top limit in px.
+     * @return Top of the first laid out row.
+     */
+    private int fillTop(RecyclerView.Recycler recycler, int limit) {
+        if (getChildCount() == 0) return limit;
+        View first = getChildAt(0);
+        int top = getDecoratedTop(first);
+        int firstPos = getPosition(first);
+        while (top > limit && firstPos > 0) {
+            int rowStart = getRowStartPos(firstPos - 1);
+            top -= layoutRow(recycler, rowStart, top, true);
+            firstPos = rowStart;
+        }
+        return top;
+    }
+
+    /**
+     * Lays out the row, that starts with the given adapter position.
+     *
+     * @param recycler Recycler to obtain views from.
+     * @param rowStart Adapter position of the first item in the row.
+     * @param edge     Top of the row if appended, bottom of the row if prepended.
+     * @param prepend  True if the row is laid out above the first row.
+     * @return Height of the laid out row.
+     */
+    private int layoutRow(RecyclerView.Recycler recycler, int rowStart, int edge, boolean prepend) {
+        int rowEnd = getRowEndPos(rowStart);
+        int section = sectionDataManager.calcSection(rowStart);
+        boolean isHeaderRow = isHeaderPos(section, rowStart);
+        int spanCnt = isHeaderRow ? 1 : getSpanCount(section);
+        int totalWidth = getWidth() - getPaddingLeft() - getPaddingRight();
+        int spanWidth = totalWidth / spanCnt;
+        int rowHeight = 0;
+        for (int pos = rowStart; pos < rowEnd; pos++) {
+            View child = recycler.getViewForPosition(pos);
+            if (prepend) {
+                addView(child, pos - rowStart);
+            } else {
+                addView(child);
+            }
+            measureChildWithMargins(child, totalWidth - spanWidth, 0);
+            rowHeight = Math.max(rowHeight, getDecoratedMeasuredHeight(child));
+        }
+        int top = prepend ? edge - rowHeight : edge;
+        for (int pos = rowStart; pos < rowEnd; pos++) {
+            View child = getChildAt(prepend ? pos - rowStart : getChildCount() - rowEnd + pos);
+            int left = getPaddingLeft() + (pos - rowStart) * spanWidth;
+            layoutDecoratedWithMargins(child, left, top, left + getDecoratedMeasuredWidth(child),
+                    top + getDecoratedMeasuredHeight(child));
+        }
+        heightEstimator.recordRowHeight(rowStart, rowHeight);
+        return rowHeight;
+    }
+
+    /**
+     * Removes and recycles rows, that are completely out of the visible area.
+     *
+     * @param recycler Recycler to recycle views.
+     */
+    private void recycleOutOfBounds(RecyclerView.Recycler recycler) {
+        int top = getPaddingTop();
+        while (getChildCount() > 0) {
+            int rowStart = getRowStartPos(getPosition(getChildAt(0)));
+            int rowEndIdx = getRowEndPos(rowStart) - rowStart;
+            if (rowEndIdx >= getChildCount() || getRowBottom(rowEndIdx - 1, rowStart) > top) break;
+            for (int i = rowEndIdx - 1; i >= 0; i--) {
+                removeAndRecycleViewAt(i, recycler);
+            }
+        }
+        int bottom = getHeight() - getPaddingBottom();
+        while (getChildCount() > 1) {
+            View last = getChildAt(getChildCount() - 1);
+            if (getDecoratedTop(last) < bottom) break;
+            int rowStart = getRowStartPos(getPosition(last));
+            for (int i = getChildCount() - 1; i >= 0 && getPosition(getChildAt(i)) >= rowStart; i--) {
+                removeAndRecycleViewAt(i, recycler);
+            }
+        }
+    }
+
+    /**
+     * Returns the bottom of the row, which ends with the child at the given index.
+     *
+     * @param lastIdx  Index of the last child in the row.
+     * @param rowStart Adapter position of the first item in the row.
+     * @return Bottom of the row in px.
+     */
+    private int getRowBottom(int lastIdx, int rowStart) {
+        int bottom = Integer.MIN_VALUE;
+        for (int i = lastIdx; i >= 0; i--) {
+            View child = getChildAt(i);
+            if (getPosition(child) < rowStart) break;
+            bottom = Math.max(bottom, getDecoratedBottom(child));
+        }
+        return bottom;
+    }
+
+    /* END LAYOUT */
+    /* PINNED HEADER */
+
+    /**
+     * Lays out the header of the section, that corresponds to the first row, at the top as the
+     * last child. If the header itself is the first row, its view is moved, otherwise a separate
+     * view is obtained from the recycler. The header is pushed out by the first row of the next
+     * section.
+     *
+     * @param recycler Recycler to obtain views from.
+     */
+    private void pinHeader(RecyclerView.Recycler recycler) {
+        if (!isHeaderPinningEnabled || getChildCount() == 0) return;
+        View first = getChildAt(0);
+        int firstPos = getPosition(first);
+        int section = sectionDataManager.calcSection(firstPos);
+        if (section == -1 || !sectionDataManager.isSectionHeaderVisible(section)
+                || !sectionDataManager.isSectionHeaderPinned(section)) return;
+        int headerPos = sectionDataManager.getSectionFirstPos(section);
+        int nextSectionTop = Integer.MAX_VALUE;
+        if (section + 1 < sectionDataManager.getSectionCount()) {
+            View nextSectionView = findViewByPosition(sectionDataManager.getSectionFirstPos(section + 1));
+            if (nextSectionView != null) {
+                nextSectionTop = getDecoratedTop(nextSectionView);
+            }
+        }
+        View headerView;
+        if (firstPos == headerPos) {
+            headerView = first;
+            isPinnedHeaderNatural = true;
+            pinnedHeaderNaturalTop = getDecoratedTop(first);
+            detachView(headerView);
+            attachView(headerView);
+        } else {
+            headerView = recycler.getViewForPosition(headerPos);
+            isPinnedHeaderNatural = false;
+            addView(headerView);
+            measureChildWithMargins(headerView, 0, 0);
+        }
+        int height = getDecoratedMeasuredHeight(headerView);
+        int top = Math.min(getPaddingTop(), nextSectionTop - height);
+        if (isPinnedHeaderNatural) {
+            top = Math.max(top, pinnedHeaderNaturalTop);
+        }
+        layoutDecoratedWithMargins(headerView, getPaddingLeft(), top,
+                getPaddingLeft() + getDecoratedMeasuredWidth(headerView), top + height);
+        pinnedHeaderView = headerView;
+    }
+
+    /**
+     * Returns the pinned header view to its natural place or recycles it, so that all children
+     * correspond to laid out rows.
+     *
+     * @param recycler Recycler to recycle views.
+     */
+    private void unpinHeader(RecyclerView.Recycler recycler) {
+        if (pinnedHeaderView == null) return;
+        View headerView = pinnedHeaderView;
+        pinnedHeaderView = null;
+        if (isPinnedHeaderNatural) {
+            detachView(headerView);
+            attachView(headerView, 0);
+            layoutDecoratedWithMargins(headerView, getPaddingLeft(), pinnedHeaderNaturalTop,
+                    getPaddingLeft() + getDecoratedMeasuredWidth(headerView),
+                    pinnedHeaderNaturalTop + getDecoratedMeasuredHeight(headerView));
+        } else {
+            removeAndRecycleView(headerView, recycler);
+        }
+    }
+
+    /**
+     * Returns the number of children, that correspond to laid out rows (excluding the separate
+     * pinned header view).
+     *
+     * @return Number of row children.
+     */
+    private int getRowChildCount() {
+        int childCnt = getChildCount();
+        return pinnedHeaderView != null && !isPinnedHeaderNatural ? childCnt - 1 : childCnt;
+    }
+
+    /* END PINNED HEADER */
+    /* SCROLL EXTENTS */
+
+    @Override
+    public int computeVerticalScrollExtent(RecyclerView.State state) {
+        return getHeight() - getPaddingTop() - getPaddingBottom();
+    }
+
+    /**
+     * Returns the estimated height of all sections, see {@link SectionHeightEstimator}.
+     */
+    @Override
+    public int computeVerticalScrollRange(RecyclerView.State state) {
+        return heightEstimator.getTotalHeight();
+    }
+
+    /**
+     * Returns the estimated distance between the top of the first section and the top of the
+     * visible area.
+     */
+    @Override
+    public int computeVerticalScrollOffset(RecyclerView.State state) {
+        int firstPos = getFirstRowPos();
+        if (firstPos == RecyclerView.NO_POSITION) return 0;
+        int offset = heightEstimator.getOffsetForPosition(firstPos);
+        return Math.max(0, offset + getPaddingTop() - getFirstRowTop());
+    }
+
+    /**
+     * Returns SectionHeightEstimator, that learns row heights during layout. It can be used to
+     * map positions to pixels and vice versa, e.g. for fast scrolling.
+     *
+     * @return SectionHeightEstimator of this layout manager.
+     */
+    public SectionHeightEstimator getHeightEstimator() {
+        return heightEstimator;
+    }
+
+    @Override
+    public void onItemsChanged(RecyclerView recyclerView) {
+        heightEstimator.invalidateAll();
+    }
+
+    @Override
+    public void onItemsAdded(RecyclerView recyclerView, int positionStart, int itemCount) {
+        heightEstimator.invalidate();
+    }
+
+    @Override
+    public void onItemsRemoved(RecyclerView recyclerView, int positionStart, int itemCount) {
+        heightEstimator.invalidate();
+    }
+
+    @Override
+    public void onItemsMoved(RecyclerView recyclerView, int from, int to, int itemCount) {
+        heightEstimator.invalidate();
+    }
+
+    @Override
+    public void onItemsUpdated(RecyclerView recyclerView, int positionStart, int itemCount) {
+        heightEstimator.invalidateItemTypes(positionStart, itemCount);
+    }
+
+    @Override
+    public void onAdapterChanged(RecyclerView.Adapter oldAdapter, RecyclerView.Adapter newAdapter) {
+        removeAllViews();
+        pinnedHeaderView = null;
+        heightEstimator.invalidate();
+    }
+
+    /* END SCROLL EXTENTS */
+    /* ROWS */
+
+    /**
+     * Returns the adapter position of the first laid out row or {@link RecyclerView#NO_POSITION}.
+     *
+     * @return First row adapter position.
+     */
+    private int getFirstRowPos() {
+        if (getRowChildCount() == 0) return RecyclerView.NO_POSITION;
+        if (pinnedHeaderView != null && isPinnedHeaderNatural) {
+            return getPosition(pinnedHeaderView);
+        }
+        return getPosition(getChildAt(0));
+    }
+
+    /**
+     * Returns the top of the first laid out row, that is the natural top of the header view, if
+     * it is pinned.
+     *
+     * @return First row top in px.
+     */
+    private int getFirstRowTop() {
+        if (pinnedHeaderView != null && isPinnedHeaderNatural) {
+            return pinnedHeaderNaturalTop;
+        }
+        return getDecoratedTop(getChildAt(0));
+    }
+
+    private int getSpanCount(int section) {
+        return spanCountLookup != null ? Math.max(1, spanCountLookup.getSpanCount(section)) : 1;
+    }
+
+    private boolean isHeaderPos(int section, int pos) {
+        return sectionDataManager.isSectionHeaderVisible(section)
+                && sectionDataManager.getSectionFirstPos(section) == pos;
+    }
+
+    /**
+     * Returns the adapter position of the first item in the row, that contains the given position.
+     *
+     * @param pos Global adapter position.
+     * @return Row start adapter position.
+     */
+    private int getRowStartPos(int pos) {
+        int section = sectionDataManager.calcSection(pos);
+        int itemsStart = sectionDataManager.getSectionFirstPos(section);
+        if (sectionDataManager.isSectionHeaderVisible(section)) {
+            if (pos == itemsStart) return pos;
+            itemsStart++;
+        }
+        int spanCnt = getSpanCount(section);
+        return itemsStart + (pos - itemsStart) / spanCnt * spanCnt;
+    }
+
+    /**
+     * Returns the adapter position after the last item in the row, that starts with the given
+     * position.
+     *
+     * @param rowStart Row start adapter position.
+     * @return Row end adapter position (exclusive).
+     */
+    private int getRowEndPos(int rowStart) {
+        int section = sectionDataManager.calcSection(rowStart);
+        if (isHeaderPos(section, rowStart)) return rowStart + 1;
+        int sectionEnd = sectionDataManager.getSectionFirstPos(section)
+                + sectionDataManager.getSectionRealItemCount(section);
+        return Math.min(rowStart + getSpanCount(section), sectionEnd);
+    }
+
+    /* END ROWS */
+    /* SAVED STATE */
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState();
+        int firstPos = getFirstRowPos();
+        if (firstPos != RecyclerView.NO_POSITION) {
+            state.anchorPos = firstPos;
+            state.anchorOffset = getFirstRowTop() - getPaddingTop();
+        }
+        return state;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (state instanceof SavedState) {
+            SavedState savedState = (SavedState) state;
+            if (savedState.anchorPos != RecyclerView.NO_POSITION) {
+                scrollToPositionWithOffset(savedState.anchorPos, savedState.anchorOffset);
+            }
+        }
+    }
+
+    static class SavedState implements Parcelable {
+
+        int anchorPos = RecyclerView.NO_POSITION;
+        int anchorOffset;
+
+        SavedState() {
+        }
+
+        SavedState(Parcel in) {
+            anchorPos = in.readInt();
+            anchorOffset = in.readInt();
+        }
+
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+            dest.writeInt(anchorPos);
+            dest.writeInt(anchorOffset);
+        }
+
+        public static final Creator<SavedState> CREATOR = new Creator<SavedState>() {
+
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+
+        };
+
+    }
+
+    /* END SAVED STATE */
+
+}
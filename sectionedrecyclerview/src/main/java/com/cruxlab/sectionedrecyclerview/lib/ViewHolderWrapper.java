@@ -35,9 +35,55 @@ class ViewHolderWrapper extends RecyclerView.ViewHolder {
 
     final BaseSectionAdapter.ViewHolder viewHolder;
 
-    ViewHolderWrapper(BaseSectionAdapter.ViewHolder viewHolder) {
+    /**
+     * Type of the section and its SectionItemSwipeCallback stamped at bind time, so that
+     * ItemTouchHelper calls made every frame don't look them up by the adapter position. They are
+     * valid while {@link #callbackEpoch} matches the one of SectionDataManager.
+     */
+    short sectionType;
+    SectionItemSwipeCallback swipeCallback;
+    int callbackEpoch = -1;
+
+    /**
+     * Section index and position in it computed for {@link #cachedAdapterPos}. They are valid
+     * while the modification count of the position index hasn't changed.
+     */
+    private final SectionPositionIndex positionIndex;
+    private int cachedAdapterPos = -1;
+    private int cachedModCount;
+    int cachedSection;
+    int cachedSectionPos;
+
+    ViewHolderWrapper(BaseSectionAdapter.ViewHolder viewHolder, SectionPositionIndex positionIndex) {
         super(viewHolder.itemView);
         this.viewHolder = viewHolder;
+        this.positionIndex = positionIndex;
+    }
+
+    /**
+     * Returns whether the cached section index and position in it correspond to the given
+     * global adapter position and nothing has changed since they were computed.
+     *
+     * @param adapterPos Global adapter position.
+     * @return True if cached values can be used, false otherwise.
+     */
+    boolean isPositionCached(int adapterPos) {
+        return adapterPos >= 0 && adapterPos == cachedAdapterPos
+                && cachedModCount == positionIndex.getModCount();
+    }
+
+    /**
+     * Caches the section index and the position in it for the given global adapter position.
+     *
+     * @param adapterPos Global adapter position.
+     * @param section    Index of the section.
+     * @param sectionPos Position in the section.
+     */
+    void cachePosition(int adapterPos, int section, int sectionPos) {
+        cachedAdapterPos = adapterPos;
+        cachedModCount = positionIndex.getModCount();
+        cachedSection = section;
+        cachedSectionPos = sectionPos;
     }
 
 }